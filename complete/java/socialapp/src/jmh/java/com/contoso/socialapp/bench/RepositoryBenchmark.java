@@ -0,0 +1,61 @@
+package com.contoso.socialapp.bench;
+
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Spring Data queries called directly, outside any service transaction
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    
+    private PostRepository postRepository;
+    private CommentRepository commentRepository;
+    
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        postRepository = db.bean(PostRepository.class);
+        commentRepository = db.bean(CommentRepository.class);
+    }
+    
+    @Benchmark
+    public List<PostResponse> postFindAll() {
+        return postRepository.findAllOrderByCreatedAtDesc();
+    }
+    
+    @Benchmark
+    public List<PostResponse> postFindFirstPage() {
+        return postRepository.findFirstPageOrderByCreatedAtDesc(PageRequest.of(0, 20));
+    }
+    
+    @Benchmark
+    public Optional<PostResponse> postFindById(SeededDatabase db) {
+        return postRepository.findResponseById(db.randomPostId());
+    }
+    
+    @Benchmark
+    public List<Comment> commentFindByPostId(SeededDatabase db) {
+        return commentRepository.findByPostIdOrderByCreatedAtAsc(db.randomPostId());
+    }
+}
@@ -0,0 +1,98 @@
+package com.contoso.socialapp.bench;
+
+import com.contoso.socialapp.SocialAppApplication;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.PostRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application without the web layer against a fresh SQLite file holding {@code posts} posts with
+ * {@code commentsPerPost} comments each. Override the sizes with -p, e.g. {@code -PjmhArgs="-p posts=100000"}.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+    private static final int SEED_BATCH = 500;
+    
+    @Param("1000")
+    public int posts;
+    
+    @Param("5")
+    public int commentsPerPost;
+    
+    public ConfigurableApplicationContext context;
+    public List<String> postIds;
+    private File file;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = File.createTempFile("socialapp-jpa-jmh-", ".db");
+        file.delete();
+        context = new SpringApplicationBuilder(SocialAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:sqlite:" + file.getAbsolutePath(),
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + SEED_BATCH,
+                        "logging.level.root=WARN")
+                .run();
+        seed();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) new File(file.getAbsolutePath() + suffix).delete();
+    }
+    
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+    
+    private void seed() {
+        PostRepository postRepository = bean(PostRepository.class);
+        TransactionTemplate tx = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        postIds = new ArrayList<>(posts);
+        for (int from = 0; from < posts; from += SEED_BATCH) {
+            int start = from;
+            List<Post> saved = tx.execute(status -> {
+                List<Post> batch = new ArrayList<>();
+                for (int i = start; i < Math.min(start + SEED_BATCH, posts); i++) {
+                    Post post = new Post();
+                    post.setUsername("user" + (i % 100));
+                    post.setContent("Post number " + i + " about the outdoors");
+                    for (int c = 0; c < commentsPerPost; c++) {
+                        Comment comment = new Comment();
+                        comment.setPost(post);
+                        comment.setUsername("user" + (c % 100));
+                        comment.setContent("Comment " + c);
+                        post.getComments().add(comment);
+                    }
+                    batch.add(post);
+                }
+                return postRepository.saveAll(batch);
+            });
+            for (Post p : saved) postIds.add(p.getId());
+        }
+        // The counter columns are not insertable, so fill them from the seeded child rows
+        tx.execute(status -> postRepository.recountAll());
+    }
+    
+    public String randomPostId() {
+        return postIds.get(ThreadLocalRandom.current().nextInt(postIds.size()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.contoso.socialapp.bench;
+
+import com.contoso.socialapp.dto.PostResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of a feed response, without Spring or the database; LocalDateTime goes through the JSR-310 module
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    
+    @Param({"20", "100"})
+    public int size;
+    
+    private final ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+    private List<PostResponse> posts;
+    private byte[] json;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        posts = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            posts.add(new PostResponse(UUID.randomUUID().toString(), "user" + i,
+                    "Post number " + i + " about hiking boots, tents and the best trails near the coast",
+                    now, now, i, i % 7));
+        }
+        json = mapper.writeValueAsBytes(posts);
+    }
+    
+    @Benchmark
+    public byte[] writePostList() throws IOException {
+        return mapper.writeValueAsBytes(posts);
+    }
+    
+    @Benchmark
+    public PostResponse[] readPostList() throws IOException {
+        return mapper.readValue(json, PostResponse[].class);
+    }
+}
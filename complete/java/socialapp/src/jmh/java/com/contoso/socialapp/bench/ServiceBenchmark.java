@@ -0,0 +1,70 @@
+package com.contoso.socialapp.bench;
+
+import com.contoso.socialapp.dto.CommentResponse;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.PostPageResponse;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.LikeService;
+import com.contoso.socialapp.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Service calls as the controllers make them, including the transaction around each one
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    
+    private static final LikeRequest LIKE = new LikeRequest("bench");
+    
+    private PostService postService;
+    private CommentService commentService;
+    private LikeService likeService;
+    
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        postService = db.bean(PostService.class);
+        commentService = db.bean(CommentService.class);
+        likeService = db.bean(LikeService.class);
+    }
+    
+    @Benchmark
+    public Optional<PostResponse> getPostById(SeededDatabase db) {
+        return postService.getPostById(db.randomPostId());
+    }
+    
+    @Benchmark
+    public PostPageResponse getPostsFirstPage() {
+        return postService.getPostsPage(20, null);
+    }
+    
+    @Benchmark
+    public List<CommentResponse> getComments(SeededDatabase db) {
+        return commentService.getCommentsByPostId(db.randomPostId());
+    }
+    
+    // Like followed by unlike keeps the table the same size across iterations
+    @Benchmark
+    public boolean addAndRemoveLike(SeededDatabase db) {
+        String postId = db.randomPostId();
+        likeService.addLike(postId, LIKE);
+        return likeService.removeLike(postId, LIKE.getUsername());
+    }
+}
@@ -0,0 +1,30 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Recomputes the likes_count and comments_count columns from the child tables at startup.
+ * Only needed once when upgrading a database that predates the counter columns.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.posts.recount-on-startup", havingValue = "true")
+public class PostCounterBackfill implements ApplicationRunner {
+
+    private final PostRepository postRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        int updated = postRepository.recountAll();
+        log.info("Recounted likes and comments for {} posts", updated);
+    }
+}
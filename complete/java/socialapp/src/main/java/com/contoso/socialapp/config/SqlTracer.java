@@ -0,0 +1,167 @@
+package com.contoso.socialapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Latency histogram and row counts for every distinct SQL statement Hibernate issues.
+ * Statements are grouped by fingerprint: whitespace, literals and IN lists are normalized, so the
+ * variable-length IN queries generated for batch fetches share one entry.
+ * Anything slower than the threshold is logged with its bind parameter types (never values).
+ */
+public class SqlTracer {
+    private static final Logger logger = LoggerFactory.getLogger(SqlTracer.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN \\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern REPEATED_TUPLES = Pattern.compile("(\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\))(?:\\s*,\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\))+");
+    private static final String OVERFLOW = "(other statements)";
+
+    private final long slowNanos;
+    private final int maxStatements;
+    private final ConcurrentHashMap<String, Stats> byFingerprint = new ConcurrentHashMap<>();
+    // Raw SQL to stats, so the regexes run once per distinct statement text rather than once per execution
+    private final ConcurrentHashMap<String, Stats> bySql = new ConcurrentHashMap<>();
+
+    public SqlTracer(long slowQueryMs, int maxStatements) {
+        this.slowNanos = slowQueryMs > 0 ? slowQueryMs * 1_000_000L : Long.MAX_VALUE;
+        this.maxStatements = maxStatements;
+    }
+
+    public static String fingerprint(String sql) {
+        String s = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        s = STRING_LITERAL.matcher(s).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("IN (?+)");
+        return REPEATED_TUPLES.matcher(s).replaceAll("$1, ...");
+    }
+
+    Stats lookup(String sql) {
+        Stats stats = bySql.get(sql);
+        if (stats != null) return stats;
+        String fp = fingerprint(sql);
+        stats = byFingerprint.get(fp);
+        if (stats == null) {
+            String key = byFingerprint.size() < maxStatements ? fp : OVERFLOW;
+            stats = byFingerprint.computeIfAbsent(key, Stats::new);
+        }
+        if (bySql.size() < maxStatements * 4) bySql.put(sql, stats);
+        return stats;
+    }
+
+    void record(Stats stats, long nanos, long rows, String params, boolean failed) {
+        stats.record(nanos, rows, failed);
+        if (nanos >= slowNanos) {
+            logger.warn("Slow SQL: {} ms, {} rows{}, params {}: {}", String.format("%.1f", nanos / 1e6), rows,
+                    failed ? " (failed)" : "", params, stats.fingerprint);
+        }
+    }
+
+    /**
+     * Statements ordered by total time spent in them, most expensive first.
+     */
+    public List<Map<String, Object>> stats(int limit) {
+        List<Stats> all = new ArrayList<>(byFingerprint.values());
+        all.sort(Comparator.comparingLong(Stats::totalNanos).reversed());
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Stats s : all.subList(0, Math.min(limit, all.size()))) out.add(s.toMap());
+        return out;
+    }
+
+    public void reset() {
+        bySql.clear();
+        byFingerprint.clear();
+    }
+
+    static final class Stats {
+        // Four buckets per power of two of microseconds, so a reported percentile is at most 25% above the true value
+        private static final int BUCKETS = 4 * 40;
+
+        final String fingerprint;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLong maxRows = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        Stats(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        void record(long nanos, long rowCount, boolean failed) {
+            count.increment();
+            if (failed) errors.increment();
+            totalNanos.add(nanos);
+            rows.add(rowCount);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            maxRows.accumulateAndGet(rowCount, Math::max);
+            histogram.incrementAndGet(bucket(nanos));
+        }
+
+        long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        static int bucket(long nanos) {
+            long micros = Math.max(1, nanos / 1000);
+            int msb = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = msb >= 2 ? (int) (micros >>> (msb - 2)) & 3 : (int) (micros << (2 - msb)) & 3;
+            return Math.min(msb * 4 + sub, BUCKETS - 1);
+        }
+
+        static double bucketUpperMs(int bucket) {
+            int msb = bucket / 4;
+            int sub = bucket % 4;
+            return (1 + (sub + 1) / 4.0) * (1L << msb) / 1000.0;
+        }
+
+        double percentileMs(double p) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) total += counts[i] = histogram.get(i);
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(p * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(bucketUpperMs(i), maxNanos.get() / 1e6);
+            }
+            return maxNanos.get() / 1e6;
+        }
+
+        Map<String, Object> toMap() {
+            long n = count.sum();
+            long total = totalNanos.sum();
+            long rowTotal = rows.sum();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("fingerprint", fingerprint);
+            m.put("count", n);
+            m.put("errors", errors.sum());
+            m.put("totalMs", total / 1e6);
+            m.put("avgMs", n == 0 ? 0.0 : total / 1e6 / n);
+            m.put("p50Ms", percentileMs(0.50));
+            m.put("p95Ms", percentileMs(0.95));
+            m.put("p99Ms", percentileMs(0.99));
+            m.put("maxMs", maxNanos.get() / 1e6);
+            m.put("rows", rowTotal);
+            m.put("avgRows", n == 0 ? 0.0 : (double) rowTotal / n);
+            m.put("maxRows", maxRows.get());
+            return m;
+        }
+    }
+}
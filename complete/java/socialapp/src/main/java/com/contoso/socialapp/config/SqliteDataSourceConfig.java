@@ -0,0 +1,131 @@
+package com.contoso.socialapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * SQLite storage in WAL mode with a single writer connection and a pool of read-only connections.
+ * Transactions marked {@code readOnly = true} are routed to the read pool; everything else,
+ * including schema updates at startup, goes through the one writer connection.
+ * Both pools are wrapped in a {@link GatedDataSource} that queues callers fairly and measures their wait,
+ * and each pool's statements are timed by a {@link TracingDataSource}.
+ */
+@Configuration
+public class SqliteDataSourceConfig {
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${app.sqlite.synchronous:NORMAL}")
+    private String synchronous;
+
+    @Value("${app.sqlite.busy-timeout-ms:5000}")
+    private int busyTimeoutMs;
+
+    @Value("${app.sqlite.cache-size:-65536}")
+    private int cacheSize;
+
+    @Value("${app.sqlite.mmap-size:268435456}")
+    private long mmapSize;
+
+    @Value("${app.sqlite.read-pool-size:0}")
+    private int readPoolSize;
+
+    @Value("${app.sqlite.write-timeout-ms:30000}")
+    private long writeTimeoutMs;
+    
+    @Value("${app.sqlite.read-timeout-ms:30000}")
+    private long readTimeoutMs;
+
+    // false turns both gates into pass-throughs so callers wait inside Hikari instead; for measuring the gates
+    @Value("${app.sqlite.gate.enabled:true}")
+    private boolean gateEnabled;
+
+    @Value("${app.sql.trace.enabled:true}")
+    private boolean traceEnabled;
+
+    @Value("${app.sql.trace.slow-query-ms:200}")
+    private long slowQueryMs;
+
+    @Value("${app.sql.trace.max-statements:500}")
+    private int maxTracedStatements;
+
+    /**
+     * Hands out lazy connection handles: the physical connection is only fetched on first use,
+     * after the transaction manager has flagged it read-only or not.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(writeDataSource());
+        proxy.setReadOnlyDataSource(readDataSource());
+        return proxy;
+    }
+
+    @Bean
+    public GatedDataSource writeDataSource() {
+        SQLiteConfig config = baseConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("sqlite-writer");
+        pool.setDataSource(sqliteDataSource(config));
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(writeTimeoutMs);
+        return gated("sqlite-writer", traced(pool), 1, writeTimeoutMs);
+    }
+
+    @Bean
+    public GatedDataSource readDataSource() {
+        SQLiteConfig config = baseConfig();
+        config.setReadOnly(true);
+
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("sqlite-reader");
+        pool.setDataSource(sqliteDataSource(config));
+        int size = readPoolSize > 0 ? readPoolSize : Runtime.getRuntime().availableProcessors();
+        pool.setMaximumPoolSize(size);
+        pool.setConnectionTimeout(readTimeoutMs);
+        pool.setReadOnly(true);
+        return gated("sqlite-reader", traced(pool), size, readTimeoutMs);
+    }
+
+    @Bean
+    public SqlTracer sqlTracer() {
+        return new SqlTracer(slowQueryMs, maxTracedStatements);
+    }
+
+    private GatedDataSource gated(String name, DataSource pool, int permits, long timeoutMs) {
+        // Unlimited permits never block, but connections are still counted
+        return new GatedDataSource(name, pool, gateEnabled ? permits : Integer.MAX_VALUE, timeoutMs);
+    }
+
+    private DataSource traced(DataSource pool) {
+        return traceEnabled ? new TracingDataSource(pool, sqlTracer()) : pool;
+    }
+
+    private SQLiteConfig baseConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(synchronous));
+        config.setBusyTimeout(busyTimeoutMs);
+        // Negative values are KiB, so the default -65536 is a 64 MiB page cache per connection
+        config.setCacheSize(cacheSize);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, Long.toString(mmapSize));
+        return config;
+    }
+
+    private DataSource sqliteDataSource(SQLiteConfig config) {
+        SQLiteDataSource ds = new SQLiteDataSource(config);
+        ds.setUrl(url);
+        return ds;
+    }
+}
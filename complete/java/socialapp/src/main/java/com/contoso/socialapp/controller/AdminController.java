@@ -0,0 +1,56 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.config.GatedDataSource;
+import com.contoso.socialapp.config.SqlTracer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operational endpoints used to size pools and caches.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Operational statistics")
+public class AdminController {
+    
+    private final List<GatedDataSource> gates;
+    private final SqlTracer sqlTracer;
+    
+    @GetMapping("/jdbc/stats")
+    @Operation(summary = "Connection gate statistics", description = "Permits in use, queue length and wait times for the writer and reader pools.")
+    public ResponseEntity<Map<String, Map<String, Object>>> jdbcStats() {
+        Map<String, Map<String, Object>> out = new LinkedHashMap<>();
+        for (GatedDataSource gate : gates) {
+            out.put(gate.getName(), gate.stats());
+        }
+        return ResponseEntity.ok(out);
+    }
+    
+    @GetMapping("/sql/stats")
+    @Operation(summary = "SQL statement statistics", description = "Latency percentiles and rows per SQL fingerprint, ordered by total time spent in the statement.")
+    public ResponseEntity<List<Map<String, Object>>> sqlStats(@RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1) {
+            throw new RuntimeException("BAD_REQUEST: limit must be positive");
+        }
+        return ResponseEntity.ok(sqlTracer.stats(limit));
+    }
+    
+    @DeleteMapping("/sql/stats")
+    @Operation(summary = "Reset SQL statement statistics", description = "Starts a new measurement window, for example before a load test.")
+    public ResponseEntity<Void> resetSqlStats() {
+        sqlTracer.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,6 +2,7 @@ package com.contoso.socialapp.controller;
 
 import com.contoso.socialapp.dto.*;
 import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.ContentVersions;
 import com.contoso.socialapp.service.PostService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,16 +27,22 @@ public class CommentController {
     
     private final CommentService commentService;
     private final PostService postService;
+    private final ContentVersions contentVersions;
     
     @GetMapping
     @Operation(summary = "List comments for a post", description = "Retrieve all comments on a specific post.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved comments"),
+            @ApiResponse(responseCode = "304", description = "Comments not modified since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Post not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<CommentResponse>> getCommentsByPostId(@PathVariable String postId) {
+    public ResponseEntity<List<CommentResponse>> getCommentsByPostId(@PathVariable String postId, WebRequest webRequest) {
         try {
+            if (PostController.notModified(webRequest, contentVersions.comments(postId))) {
+                return null;
+            }
+            
             // Check if post exists
             if (!postService.postExists(postId)) {
                 throw new RuntimeException("NOT_FOUND: Post not found");
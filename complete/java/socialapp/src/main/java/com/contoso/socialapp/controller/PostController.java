@@ -1,6 +1,7 @@
 package com.contoso.socialapp.controller;
 
 import com.contoso.socialapp.dto.*;
+import com.contoso.socialapp.service.ContentVersions;
 import com.contoso.socialapp.service.PostService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,19 +24,51 @@ import java.util.List;
 @Tag(name = "Posts", description = "Operations related to posts")
 public class PostController {
     
+    static final int MAX_PAGE_SIZE = 100;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     private final PostService postService;
+    private final ContentVersions contentVersions;
     
     @GetMapping
-    @Operation(summary = "List all posts", description = "Retrieve all recent posts to browse what others are sharing.")
+    @Operation(summary = "List all posts", description = "Retrieve all recent posts to browse what others are sharing. "
+            + "Pass limit and/or cursor to page through the feed; the next cursor is returned in the X-Next-Cursor header. "
+            + "Send the last ETag in If-None-Match to get 304 while the feed is unchanged.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved posts"),
+            @ApiResponse(responseCode = "304", description = "Feed not modified since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit or cursor"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<PostResponse>> getAllPosts() {
+    public ResponseEntity<List<PostResponse>> getAllPosts(@RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String cursor,
+                                                          WebRequest webRequest) {
         try {
-            List<PostResponse> posts = postService.getAllPosts();
-            return ResponseEntity.ok(posts);
-        } catch (Exception e) {
+            int pageSize = limit == null ? MAX_PAGE_SIZE : limit;
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new RuntimeException("BAD_REQUEST: limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            
+            if (notModified(webRequest, contentVersions.feed())) {
+                return null;
+            }
+            
+            // Without paging parameters keep returning the whole feed for existing clients
+            if (limit == null && cursor == null) {
+                List<PostResponse> posts = postService.getAllPosts();
+                return ResponseEntity.ok(posts);
+            }
+            
+            PostPageResponse page = postService.getPostsPage(pageSize, cursor);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith("BAD_REQUEST")) {
+                throw e;
+            }
             log.error("Error retrieving posts", e);
             throw new RuntimeException("INTERNAL_SERVER_ERROR: " + e.getMessage());
         }
@@ -61,11 +95,16 @@ public class PostController {
     @Operation(summary = "Get a specific post", description = "Retrieve a specific post by its ID to read in detail.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Post found"),
+            @ApiResponse(responseCode = "304", description = "Post not modified since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Post not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<PostResponse> getPostById(@PathVariable String postId) {
+    public ResponseEntity<PostResponse> getPostById(@PathVariable String postId, WebRequest webRequest) {
         try {
+            if (notModified(webRequest, contentVersions.post(postId))) {
+                return null;
+            }
+            
             return postService.getPostById(postId)
                     .map(post -> ResponseEntity.ok(post))
                     .orElseThrow(() -> new RuntimeException("NOT_FOUND: Post not found"));
@@ -123,4 +162,13 @@ public class PostController {
             throw new RuntimeException("INTERNAL_SERVER_ERROR: " + e.getMessage());
         }
     }
+    
+    /**
+     * Compares the request's If-None-Match / If-Modified-Since with the given version and, when they match,
+     * turns the response into a 304 before anything is queried; the handler then returns null.
+     * Otherwise ETag and Last-Modified are set on the response.
+     */
+    static boolean notModified(WebRequest webRequest, ContentVersions.Version version) {
+        return webRequest.checkNotModified(version.etag(), version.lastModified());
+    }
 }
@@ -0,0 +1,18 @@
+package com.contoso.socialapp.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostPageResponse {
+    
+    private List<PostResponse> items;
+    
+    // Opaque cursor for the following page, or null when this is the last page
+    private String nextCursor;
+}
@@ -11,7 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,6 +34,16 @@ public class Post {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    // Denormalized counters maintained atomically by LikeService and CommentService; never written from
+    // entity state, so saving a post with stale counts cannot overwrite concurrent increments
+    @Column(name = "likes_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private int likesCount;
+    
+    @Column(name = "comments_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private int commentsCount;
+    
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Comment> comments = new ArrayList<>();
     
@@ -50,13 +60,4 @@ public class Post {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
-    
-    // Helper methods for counts
-    public int getLikesCount() {
-        return likes != null ? likes.size() : 0;
-    }
-    
-    public int getCommentsCount() {
-        return comments != null ? comments.size() : 0;
-    }
 }
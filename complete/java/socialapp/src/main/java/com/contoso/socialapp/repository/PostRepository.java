@@ -1,15 +1,57 @@
 package com.contoso.socialapp.repository;
 
+import com.contoso.socialapp.dto.PostResponse;
 import com.contoso.socialapp.entity.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, String> {
     
-    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC")
-    List<Post> findAllOrderByCreatedAtDesc();
+    // Read projections select the counter columns directly so the comments and likes collections are never loaded
+    String POST_RESPONSE_PROJECTION = "SELECT new com.contoso.socialapp.dto.PostResponse("
+            + "p.id, p.username, p.content, p.createdAt, p.updatedAt, p.likesCount, p.commentsCount) FROM Post p ";
+    
+    @Query(POST_RESPONSE_PROJECTION + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostResponse> findAllOrderByCreatedAtDesc();
+    
+    // Keyset pagination over idx_posts_created_at_id; only the Pageable size is used, never an offset
+    @Query(POST_RESPONSE_PROJECTION + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostResponse> findFirstPageOrderByCreatedAtDesc(Pageable pageable);
+    
+    // Native so the row-value comparison reaches SQLite as a single range seek on the index; the expanded
+    // OR form is planned as a scan. JPQL constructor expressions are not available here, so entities are returned.
+    String PAGE_AFTER_SQL = "SELECT p.* FROM posts p WHERE (p.created_at, p.id) < (:createdAt, :id) "
+            + "ORDER BY p.created_at DESC, p.id DESC";
+    
+    @Query(value = PAGE_AFTER_SQL, nativeQuery = true)
+    List<Post> findPageAfterOrderByCreatedAtDesc(@Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") String id,
+                                          Pageable pageable);
+    
+    @Query(POST_RESPONSE_PROJECTION + "WHERE p.id = :postId")
+    Optional<PostResponse> findResponseById(@Param("postId") String postId);
+    
+    @Modifying
+    @Query("UPDATE Post p SET p.likesCount = p.likesCount + :delta WHERE p.id = :postId")
+    int adjustLikesCount(@Param("postId") String postId, @Param("delta") int delta);
+    
+    @Modifying
+    @Query("UPDATE Post p SET p.commentsCount = p.commentsCount + :delta WHERE p.id = :postId")
+    int adjustCommentsCount(@Param("postId") String postId, @Param("delta") int delta);
+    
+    // Rebuilds both counters from the child tables, used once when upgrading a database created before the counter columns
+    @Modifying
+    @Query(value = "UPDATE posts SET "
+            + "likes_count = (SELECT COUNT(*) FROM likes l WHERE l.post_id = posts.id), "
+            + "comments_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = posts.id)", nativeQuery = true)
+    int recountAll();
 }
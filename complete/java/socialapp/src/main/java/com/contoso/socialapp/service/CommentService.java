@@ -22,7 +22,9 @@ public class CommentService {
     
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
+    private final ContentVersions contentVersions;
     
+    @Transactional(readOnly = true)
     public List<CommentResponse> getCommentsByPostId(String postId) {
         log.info("Retrieving comments for post ID: {}", postId);
         return commentRepository.findByPostIdOrderByCreatedAtAsc(postId)
@@ -42,12 +44,15 @@ public class CommentService {
                     comment.setContent(request.getContent());
                     
                     Comment savedComment = commentRepository.save(comment);
+                    postRepository.adjustCommentsCount(postId, 1);
+                    contentVersions.commentsChanged(postId);
                     log.info("Created comment with ID: {} for post ID: {}", savedComment.getId(), postId);
                     
                     return convertToResponse(savedComment);
                 });
     }
     
+    @Transactional(readOnly = true)
     public Optional<CommentResponse> getCommentById(String postId, String commentId) {
         log.info("Retrieving comment with ID: {} for post ID: {}", commentId, postId);
         return commentRepository.findByIdAndPostId(commentId, postId)
@@ -62,6 +67,7 @@ public class CommentService {
                 .map(comment -> {
                     comment.setContent(request.getContent());
                     Comment savedComment = commentRepository.save(comment);
+                    contentVersions.commentsChanged(postId);
                     log.info("Updated comment with ID: {} for post ID: {}", savedComment.getId(), postId);
                     return convertToResponse(savedComment);
                 });
@@ -73,6 +79,8 @@ public class CommentService {
         Optional<Comment> comment = commentRepository.findByIdAndPostId(commentId, postId);
         if (comment.isPresent()) {
             commentRepository.delete(comment.get());
+            postRepository.adjustCommentsCount(postId, -1);
+            contentVersions.commentsChanged(postId);
             log.info("Deleted comment with ID: {} for post ID: {}", commentId, postId);
             return true;
         }
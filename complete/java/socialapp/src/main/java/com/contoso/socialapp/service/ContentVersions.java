@@ -0,0 +1,82 @@
+package com.contoso.socialapp.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change sequence behind the ETag and Last-Modified headers on post and comment reads.
+ * Each write takes the next value of a process-wide sequence once its transaction commits; the feed's
+ * version is the latest value and a post's version the latest write to it. Posts untouched since startup
+ * share the startup version, and tags carry a per-boot prefix so they never survive a restart.
+ */
+@Component
+public class ContentVersions {
+    
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Version initial = next();
+    private final ConcurrentHashMap<String, Version> posts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Version> comments = new ConcurrentHashMap<>();
+    private volatile Version feed = initial;
+    
+    public record Version(String etag, long lastModified) {
+    }
+    
+    public Version feed() {
+        return feed;
+    }
+    
+    public Version post(String postId) {
+        return posts.getOrDefault(postId, initial);
+    }
+    
+    public Version comments(String postId) {
+        return comments.getOrDefault(postId, initial);
+    }
+    
+    /**
+     * Records a change to a post's own fields, its likes count included.
+     * Deleted posts keep their entry so a tag issued before the delete can never match again.
+     */
+    public void postChanged(String postId) {
+        afterCommit(() -> {
+            Version v = next();
+            posts.put(postId, v);
+            feed = v;
+        });
+    }
+    
+    /**
+     * Records a change to a post's comment list, which also changes the post's commentsCount.
+     */
+    public void commentsChanged(String postId) {
+        afterCommit(() -> {
+            Version v = next();
+            comments.put(postId, v);
+            posts.put(postId, v);
+            feed = v;
+        });
+    }
+    
+    // Bumping before commit would let a reader tag the old rows with the new version
+    private static void afterCommit(Runnable bump) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump.run();
+            }
+        });
+    }
+    
+    private Version next() {
+        return new Version("\"" + epoch + "-" + sequence.incrementAndGet() + "\"", System.currentTimeMillis());
+    }
+}
@@ -21,6 +21,7 @@ public class LikeService {
     
     private final LikeRepository likeRepository;
     private final PostRepository postRepository;
+    private final ContentVersions contentVersions;
     
     public Optional<LikeResponse> addLike(String postId, LikeRequest request) {
         log.info("Adding like to post ID: {} by user: {}", postId, request.getUsername());
@@ -47,6 +48,8 @@ public class LikeService {
         like.setUsername(request.getUsername());
         
         Like savedLike = likeRepository.save(like);
+        postRepository.adjustLikesCount(postId, 1);
+        contentVersions.postChanged(postId);
         log.info("Added like to post ID: {} by user: {}", postId, request.getUsername());
         
         return Optional.of(convertToResponse(savedLike));
@@ -58,6 +61,8 @@ public class LikeService {
         Optional<Like> like = likeRepository.findByPostIdAndUsername(postId, username);
         if (like.isPresent()) {
             likeRepository.delete(like.get());
+            postRepository.adjustLikesCount(postId, -1);
+            contentVersions.postChanged(postId);
             log.info("Removed like from post ID: {} by user: {}", postId, username);
             return true;
         }
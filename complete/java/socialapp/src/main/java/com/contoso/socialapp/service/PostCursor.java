@@ -0,0 +1,35 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.PostResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the post feed.
+ * Encodes the (createdAt, id) of the last post returned so the next page continues strictly after it.
+ */
+record PostCursor(LocalDateTime createdAt, String id) {
+    
+    private static final char SEPARATOR = '|';
+    
+    static String encode(PostResponse last) {
+        String raw = last.getCreatedAt().toString() + SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static PostCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARATOR);
+            if (sep <= 0 || sep == raw.length() - 1) {
+                throw new IllegalArgumentException("missing separator");
+            }
+            return new PostCursor(LocalDateTime.parse(raw.substring(0, sep)), raw.substring(sep + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("BAD_REQUEST: The cursor parameter is invalid");
+        }
+    }
+}
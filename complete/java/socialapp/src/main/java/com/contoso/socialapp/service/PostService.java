@@ -5,12 +5,13 @@ import com.contoso.socialapp.entity.Post;
 import com.contoso.socialapp.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,13 +20,32 @@ import java.util.stream.Collectors;
 public class PostService {
     
     private final PostRepository postRepository;
+    private final ContentVersions contentVersions;
     
+    @Transactional(readOnly = true)
     public List<PostResponse> getAllPosts() {
         log.info("Retrieving all posts");
-        return postRepository.findAllOrderByCreatedAtDesc()
-                .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return postRepository.findAllOrderByCreatedAtDesc();
+    }
+    
+    @Transactional(readOnly = true)
+    public PostPageResponse getPostsPage(int limit, String cursor) {
+        log.info("Retrieving page of {} posts", limit);
+        
+        Pageable pageable = PageRequest.of(0, limit);
+        List<PostResponse> posts;
+        if (cursor == null || cursor.isEmpty()) {
+            posts = postRepository.findFirstPageOrderByCreatedAtDesc(pageable);
+        } else {
+            PostCursor after = PostCursor.decode(cursor);
+            posts = postRepository.findPageAfterOrderByCreatedAtDesc(after.createdAt(), after.id(), pageable)
+                    .stream()
+                    .map(this::convertToResponse)
+                    .toList();
+        }
+        
+        String nextCursor = posts.size() == limit ? PostCursor.encode(posts.get(posts.size() - 1)) : null;
+        return new PostPageResponse(posts, nextCursor);
     }
     
     public PostResponse createPost(NewPostRequest request) {
@@ -36,15 +56,16 @@ public class PostService {
         post.setContent(request.getContent());
         
         Post savedPost = postRepository.save(post);
+        contentVersions.postChanged(savedPost.getId());
         log.info("Created post with ID: {}", savedPost.getId());
         
         return convertToResponse(savedPost);
     }
     
+    @Transactional(readOnly = true)
     public Optional<PostResponse> getPostById(String postId) {
         log.info("Retrieving post with ID: {}", postId);
-        return postRepository.findById(postId)
-                .map(this::convertToResponse);
+        return postRepository.findResponseById(postId);
     }
     
     public Optional<PostResponse> updatePost(String postId, UpdatePostRequest request) {
@@ -55,6 +76,7 @@ public class PostService {
                 .map(post -> {
                     post.setContent(request.getContent());
                     Post savedPost = postRepository.save(post);
+                    contentVersions.postChanged(postId);
                     log.info("Updated post with ID: {}", savedPost.getId());
                     return convertToResponse(savedPost);
                 });
@@ -65,6 +87,7 @@ public class PostService {
         
         if (postRepository.existsById(postId)) {
             postRepository.deleteById(postId);
+            contentVersions.commentsChanged(postId);
             log.info("Deleted post with ID: {}", postId);
             return true;
         }
@@ -73,6 +96,7 @@ public class PostService {
         return false;
     }
     
+    @Transactional(readOnly = true)
     public boolean postExists(String postId) {
         return postRepository.existsById(postId);
     }
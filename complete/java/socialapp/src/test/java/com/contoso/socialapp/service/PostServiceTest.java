@@ -0,0 +1,115 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.NewPostRequest;
+import com.contoso.socialapp.dto.PostPageResponse;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class PostServiceTest {
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        File file = File.createTempFile("post-service-test", ".db");
+        file.deleteOnExit();
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + file.getAbsolutePath());
+    }
+    
+    @Autowired
+    private PostService postService;
+    
+    @Autowired
+    private LikeService likeService;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM likes");
+        jdbcTemplate.update("DELETE FROM comments");
+        jdbcTemplate.update("DELETE FROM posts");
+    }
+    
+    @Test
+    void savingAStaleEntityKeepsTheCounters() {
+        String id = postService.createPost(new NewPostRequest("alice", "hello")).getId();
+        Post stale = postRepository.findById(id).orElseThrow();
+        
+        likeService.addLike(id, new LikeRequest("bob"));
+        likeService.addLike(id, new LikeRequest("carol"));
+        
+        stale.setContent("edited");
+        postRepository.save(stale);
+        
+        PostResponse post = postService.getPostById(id).orElseThrow();
+        assertEquals("edited", post.getContent());
+        assertEquals(2, post.getLikesCount());
+    }
+    
+    @Test
+    void newPostsStartWithZeroCounters() {
+        PostResponse created = postService.createPost(new NewPostRequest("alice", "hello"));
+        
+        assertEquals(0, created.getLikesCount());
+        assertEquals(0, postService.getPostById(created.getId()).orElseThrow().getCommentsCount());
+    }
+    
+    @Test
+    void keysetPagesWalkTheFeedWithoutGapsOrDuplicates() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(postService.createPost(new NewPostRequest("user" + i, "post " + i)).getId());
+        }
+        // Give most posts the same timestamp so page boundaries fall inside a tie and the id breaks it
+        Timestamp tied = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 12, 0));
+        jdbcTemplate.update("UPDATE posts SET created_at = ? WHERE id <> ?", tied, ids.get(6));
+        
+        List<PostResponse> expected = new ArrayList<>(postService.getAllPosts());
+        expected.sort(Comparator.comparing(PostResponse::getCreatedAt).thenComparing(PostResponse::getId).reversed());
+        
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            PostPageResponse page = postService.getPostsPage(3, cursor);
+            page.getItems().forEach(p -> walked.add(p.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        
+        assertEquals(expected.stream().map(PostResponse::getId).toList(), walked);
+        assertEquals(3, pages);
+    }
+    
+    @Test
+    void pagesAfterACursorSeekTheCreatedAtIndex() {
+        String sql = PostRepository.PAGE_AFTER_SQL.replace(":createdAt", "?").replace(":id", "?");
+        List<String> plan = jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql, (rs, i) -> rs.getString("detail"), 0L, "");
+        
+        assertTrue(plan.stream().anyMatch(d -> d.startsWith("SEARCH p USING INDEX idx_posts_created_at_id")), plan::toString);
+    }
+}
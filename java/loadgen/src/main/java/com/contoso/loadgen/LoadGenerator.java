@@ -0,0 +1,130 @@
+package com.contoso.loadgen;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load generator for the socialapp REST API, one virtual thread per in-flight request.
+ * <ul>
+ *   <li>Closed loop: {@code --concurrency} clients send a request, wait for the answer and send the next.
+ *   Throughput is the result; latency is service time only.</li>
+ *   <li>Open loop: requests are due at a fixed {@code --rate} whatever the server does. Latency runs from the
+ *   intended start, so time spent queued behind a slow response is counted (no coordinated omission).</li>
+ * </ul>
+ */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--help")) {
+            System.out.print(Options.USAGE);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("compare")) {
+            if (args.length != 3) {
+                System.err.print(Options.USAGE);
+                System.exit(2);
+            }
+            Report.compare(Report.read(new File(args[1])), Report.read(new File(args[2])), System.out);
+            return;
+        }
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(Options.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(executor)
+                    .build();
+            Scenario scenario = new Scenario(client, options);
+            System.out.printf("Seeding %d posts at %s%n", options.seedPosts, options.baseUrl);
+            scenario.seed(options.seedPosts);
+
+            Stats stats = new Stats();
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+            System.out.printf("Running %s for %ds after %ds of warm-up%n", options.label, options.durationSeconds, options.warmupSeconds);
+            if (options.open) {
+                runOpen(scenario, stats, executor, options.rate, start, measureFrom, end);
+            } else {
+                runClosed(scenario, stats, options.concurrency, measureFrom, end);
+            }
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+
+            Report report = stats.toReport(options, options.durationSeconds);
+            report.print(System.out);
+            if (options.out != null) {
+                report.write(new File(options.out));
+                System.out.println("Report written to " + options.out);
+            }
+        }
+    }
+
+    private static void runClosed(Scenario scenario, Stats stats, int clients, long measureFrom, long end) throws InterruptedException {
+        Thread[] workers = new Thread[clients];
+        for (int i = 0; i < clients; i++) {
+            workers[i] = Thread.ofVirtual().name("client-" + i).start(() -> {
+                while (true) {
+                    long sent = System.nanoTime();
+                    if (sent >= end) return;
+                    Operation op = scenario.pick();
+                    boolean ok = call(scenario, op);
+                    if (sent >= measureFrom) stats.record(op, System.nanoTime() - sent, ok);
+                }
+            });
+        }
+        for (Thread t : workers) t.join();
+    }
+
+    private static void runOpen(Scenario scenario, Stats stats, ExecutorService executor, int rate,
+                                long start, long measureFrom, long end) throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        LongAdder inFlight = new LongAdder();
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            long due = intended;
+            inFlight.increment();
+            executor.execute(() -> {
+                try {
+                    Operation op = scenario.pick();
+                    boolean ok = call(scenario, op);
+                    if (due >= measureFrom) stats.record(op, System.nanoTime() - due, ok);
+                } finally {
+                    inFlight.decrement();
+                }
+            });
+        }
+        // Let the last requests finish so their latency is recorded
+        while (inFlight.sum() > 0) Thread.sleep(10);
+    }
+
+    private static boolean call(Scenario scenario, Operation op) {
+        try {
+            return scenario.execute(op);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
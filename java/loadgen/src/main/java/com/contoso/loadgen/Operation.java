@@ -0,0 +1,21 @@
+package com.contoso.loadgen;
+
+/**
+ * The requests in the traffic mix. Each one is reported as its own endpoint.
+ */
+enum Operation {
+    FEED("GET /posts?limit=20"),
+    POST("GET /posts/{id}"),
+    COMMENT("POST /posts/{id}/comments"),
+    LIKE("POST|DELETE /posts/{hot}/likes");
+
+    final String description;
+
+    Operation(String description) {
+        this.description = description;
+    }
+
+    String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,93 @@
+package com.contoso.loadgen;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Command line settings. Every option is --name value; see {@link #USAGE}.
+ */
+final class Options {
+    static final String USAGE = """
+            Usage: loadgen [options]            run a load test
+                   loadgen compare A.json B.json print two reports side by side
+                   loadgen --help                print this text
+
+              --base-url URL      API root (default http://localhost:8080/api)
+              --mode open|closed  open: fixed arrival rate, latency measured from the intended start;
+                                  closed: fixed number of clients, each waiting for its response (default closed)
+              --rate N            open mode: requests per second (default 200)
+              --concurrency N     closed mode: concurrent clients (default 32)
+              --duration S        measured seconds (default 60)
+              --warmup S          seconds run before measuring (default 10)
+              --mix SPEC          traffic weights (default feed=50,post=30,comment=10,like=10)
+              --seed-posts N      posts created before the run (default 200)
+              --users N           distinct usernames used for likes and comments (default 1000)
+              --label NAME        name of the run in the report (default the mode)
+              --out FILE          write the report as JSON
+            """;
+
+    String baseUrl = "http://localhost:8080/api";
+    boolean open;
+    int rate = 200;
+    int concurrency = 32;
+    int durationSeconds = 60;
+    int warmupSeconds = 10;
+    Map<Operation, Integer> mix = parseMix("feed=50,post=30,comment=10,like=10");
+    int seedPosts = 200;
+    int users = 1000;
+    String label;
+    String out;
+
+    static Options parse(String[] args) {
+        Options o = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + name);
+            String value = args[++i];
+            switch (name) {
+                case "--base-url" -> o.baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "--mode" -> {
+                    if (!value.equals("open") && !value.equals("closed")) throw new IllegalArgumentException("--mode must be open or closed");
+                    o.open = value.equals("open");
+                }
+                case "--rate" -> o.rate = positive(name, value);
+                case "--concurrency" -> o.concurrency = positive(name, value);
+                case "--duration" -> o.durationSeconds = positive(name, value);
+                case "--warmup" -> o.warmupSeconds = Integer.parseInt(value);
+                case "--mix" -> o.mix = parseMix(value);
+                case "--seed-posts" -> o.seedPosts = positive(name, value);
+                case "--users" -> o.users = positive(name, value);
+                case "--label" -> o.label = value;
+                case "--out" -> o.out = value;
+                default -> throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        if (o.label == null) o.label = o.open ? "open-" + o.rate + "rps" : "closed-" + o.concurrency;
+        return o;
+    }
+
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad mix entry '" + part + "', expected name=weight");
+            Operation op;
+            try {
+                op = Operation.valueOf(kv[0].trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown operation '" + kv[0] + "' in mix");
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight < 0) throw new IllegalArgumentException("Mix weights must not be negative");
+            if (weight > 0) mix.put(op, weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        return mix;
+    }
+
+    private static int positive(String name, String value) {
+        int n = Integer.parseInt(value);
+        if (n <= 0) throw new IllegalArgumentException(name + " must be positive");
+        return n;
+    }
+}
@@ -0,0 +1,94 @@
+package com.contoso.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Result of one run. Latencies are in milliseconds; in open mode they include the time a request waited
+ * behind its intended start, so they are free of coordinated omission.
+ *
+ * @param load requests per second in open mode, clients in closed mode
+ */
+record Report(String label, String mode, int load, String baseUrl, long durationSeconds, Map<String, Endpoint> endpoints) {
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String[] METRICS = {"throughput", "p50", "p90", "p99", "p999", "max", "errors"};
+
+    record Endpoint(long count, long errors, double throughput, double mean, double p50, double p90, double p99,
+                    double p999, double max) {
+
+        static Endpoint of(Histogram micros, long errors, double seconds) {
+            return new Endpoint(micros.getTotalCount(), errors, round(micros.getTotalCount() / seconds),
+                    ms(micros.getMean()), ms(micros.getValueAtPercentile(50)), ms(micros.getValueAtPercentile(90)),
+                    ms(micros.getValueAtPercentile(99)), ms(micros.getValueAtPercentile(99.9)), ms(micros.getMaxValue()));
+        }
+
+        double metric(String name) {
+            return switch (name) {
+                case "throughput" -> throughput;
+                case "p50" -> p50;
+                case "p90" -> p90;
+                case "p99" -> p99;
+                case "p999" -> p999;
+                case "max" -> max;
+                case "errors" -> errors;
+                default -> throw new IllegalArgumentException(name);
+            };
+        }
+
+        private static double ms(double micros) {
+            return round(micros / 1000.0);
+        }
+
+        private static double round(double v) {
+            return Math.round(v * 1000.0) / 1000.0;
+        }
+    }
+
+    void write(File file) throws IOException {
+        JSON.writeValue(file, this);
+    }
+
+    static Report read(File file) throws IOException {
+        return JSON.readValue(file, Report.class);
+    }
+
+    void print(PrintStream out) {
+        out.printf("%s (%s, load %d, %ds against %s)%n", label, mode, load, durationSeconds, baseUrl);
+        out.printf("%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms",
+                "p99 ms", "p99.9 ms", "max ms");
+        endpoints.forEach((name, e) -> out.printf("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, e.count(), e.errors(), e.throughput(), e.p50(), e.p90(), e.p99(), e.p999(), e.max()));
+    }
+
+    /**
+     * Prints every metric of both runs with the ratio b/a, so two implementations or two builds can be
+     * compared under the same load.
+     */
+    static void compare(Report a, Report b, PrintStream out) {
+        out.printf("A = %s (%s, load %d)%nB = %s (%s, load %d)%n", a.label, a.mode, a.load, b.label, b.mode, b.load);
+        out.printf("%-10s %-10s %12s %12s %8s%n", "endpoint", "metric", "A", "B", "B/A");
+        TreeSet<String> names = new TreeSet<>(a.endpoints.keySet());
+        names.addAll(b.endpoints.keySet());
+        for (String name : names) {
+            Endpoint ea = a.endpoints.get(name);
+            Endpoint eb = b.endpoints.get(name);
+            for (String metric : METRICS) {
+                Double va = ea == null ? null : ea.metric(metric);
+                Double vb = eb == null ? null : eb.metric(metric);
+                String ratio = va == null || vb == null || va == 0 ? "-" : String.format("%.2f", vb / va);
+                out.printf("%-10s %-10s %12s %12s %8s%n", name, metric, format(va), format(vb), ratio);
+            }
+        }
+    }
+
+    private static String format(Double v) {
+        return v == null ? "-" : String.format("%.2f", v);
+    }
+}
@@ -0,0 +1,118 @@
+package com.contoso.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Seeds the target and issues the requests of the mix. Works against both socialapp implementations:
+ * unlike sends the username as a query parameter (JPA) and in the body (JDBC).
+ */
+final class Scenario {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int users;
+    private final Operation[] wheel;
+    private final List<String> postIds = new ArrayList<>();
+    private String hotPostId;
+    // Even: the user's next like action is a like; odd: an unlike
+    private final AtomicIntegerArray likeTurns;
+
+    Scenario(HttpClient client, Options options) {
+        this.client = client;
+        this.baseUrl = options.baseUrl;
+        this.users = options.users;
+        this.likeTurns = new AtomicIntegerArray(options.users);
+        int total = options.mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.wheel = new Operation[total];
+        int i = 0;
+        for (Map.Entry<Operation, Integer> e : options.mix.entrySet()) {
+            for (int n = 0; n < e.getValue(); n++) wheel[i++] = e.getKey();
+        }
+    }
+
+    void seed(int posts) throws IOException, InterruptedException {
+        for (int i = 0; i < posts; i++) {
+            String body = JSON.writeValueAsString(Map.of("username", user(i), "content", "Load test post " + i + " #loadtest"));
+            HttpResponse<String> resp = client.send(json("POST", "/posts", body), HttpResponse.BodyHandlers.ofString());
+            if (resp.statusCode() != 201) throw new IOException("Seeding failed: POST /posts returned " + resp.statusCode());
+            JsonNode node = JSON.readTree(resp.body());
+            postIds.add(node.get("id").asText());
+        }
+        hotPostId = postIds.get(0);
+    }
+
+    Operation pick() {
+        return wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+    }
+
+    /**
+     * Sends one request and returns whether it succeeded.
+     */
+    boolean execute(Operation op) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (op) {
+            case FEED -> {
+                return send(get("/posts?limit=20")) == 200;
+            }
+            case POST -> {
+                return send(get("/posts/" + postIds.get(random.nextInt(postIds.size())))) == 200;
+            }
+            case COMMENT -> {
+                String postId = postIds.get(random.nextInt(postIds.size()));
+                String body = JSON.writeValueAsString(Map.of("username", user(random.nextInt(users)), "content", "Load test comment"));
+                return send(json("POST", "/posts/" + postId + "/comments", body)) == 201;
+            }
+            case LIKE -> {
+                int u = random.nextInt(users);
+                String username = user(u);
+                String body = JSON.writeValueAsString(Map.of("username", username));
+                if (likeTurns.getAndIncrement(u) % 2 == 0) {
+                    int status = send(json("POST", "/posts/" + hotPostId + "/likes", body));
+                    return status == 201 || status == 200;
+                }
+                String query = "?username=" + URLEncoder.encode(username, StandardCharsets.UTF_8);
+                int status = send(json("DELETE", "/posts/" + hotPostId + "/likes" + query, body));
+                // Two turns of the same user can overtake each other on the wire, so a missing like is fine
+                return status == 204 || status == 404;
+            }
+            default -> throw new IllegalStateException("Unhandled operation " + op);
+        }
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String user(int i) {
+        return "loaduser" + i;
+    }
+}
@@ -0,0 +1,53 @@
+package com.contoso.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms, in microseconds, plus success and error counts. Recording is
+ * thread safe and lock free.
+ */
+final class Stats {
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<Operation, Endpoint> endpoints = new EnumMap<>(Operation.class);
+
+    Stats() {
+        for (Operation op : Operation.values()) endpoints.put(op, new Endpoint());
+    }
+
+    void record(Operation op, long latencyNanos, boolean ok) {
+        Endpoint e = endpoints.get(op);
+        e.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_TRACKABLE_MICROS));
+        (ok ? e.ok : e.errors).increment();
+    }
+
+    Report toReport(Options options, double measuredSeconds) {
+        Map<String, Report.Endpoint> result = new LinkedHashMap<>();
+        Histogram all = new Histogram(MAX_TRACKABLE_MICROS, 3);
+        long errors = 0;
+        for (Map.Entry<Operation, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint e = entry.getValue();
+            if (e.latency.getTotalCount() == 0) continue;
+            Histogram snapshot = e.latency.copy();
+            all.add(snapshot);
+            errors += e.errors.sum();
+            result.put(entry.getKey().key(), Report.Endpoint.of(snapshot, e.errors.sum(), measuredSeconds));
+        }
+        if (all.getTotalCount() > 0) result.put("total", Report.Endpoint.of(all, errors, measuredSeconds));
+        return new Report(options.label, options.open ? "open" : "closed", options.open ? options.rate : options.concurrency,
+                options.baseUrl, Math.round(measuredSeconds), result);
+    }
+
+    private static final class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,48 @@
+package com.contoso.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportTest {
+
+    @Test
+    void parsesOptionsAndMix() {
+        Options o = Options.parse(new String[]{"--mode", "open", "--rate", "500", "--mix", "feed=3,like=1,comment=0"});
+        assertTrue(o.open);
+        assertEquals(500, o.rate);
+        assertEquals(Map.of(Operation.FEED, 3, Operation.LIKE, 1), o.mix);
+        assertEquals("open-500rps", o.label);
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"--mix", "feed=0"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"--mode", "sideways"}));
+    }
+
+    @Test
+    void roundTripsAndComparesReports(@TempDir File dir) throws Exception {
+        Histogram h = new Histogram(3);
+        for (int i = 1; i <= 1000; i++) h.recordValue(i * 1000L);
+        Report.Endpoint feed = Report.Endpoint.of(h, 2, 10);
+        assertEquals(100.0, feed.throughput());
+        assertEquals(500.0, feed.p50(), 1.0);
+
+        Report a = new Report("jdbc", "open", 100, "http://a/api", 10, Map.of("feed", feed));
+        File file = new File(dir, "a.json");
+        a.write(file);
+        Report read = Report.read(file);
+        assertEquals(a, read);
+
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        Report.compare(read, new Report("jpa", "open", 100, "http://b/api", 10, Map.of()), new PrintStream(buf, true, StandardCharsets.UTF_8));
+        String out = buf.toString(StandardCharsets.UTF_8);
+        assertTrue(out.contains("feed"));
+        assertTrue(out.contains("p99"));
+    }
+}
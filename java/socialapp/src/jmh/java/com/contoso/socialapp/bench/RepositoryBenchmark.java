@@ -0,0 +1,59 @@
+package com.contoso.socialapp.bench;
+
+import com.contoso.socialapp.model.dto.CommentDTO;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Straight JdbcTemplate reads with no cache in front
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    private PostRepository postRepo;
+    private CommentRepository commentRepo;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        postRepo = db.bean(PostRepository.class);
+        commentRepo = db.bean(CommentRepository.class);
+    }
+
+    @Benchmark
+    public List<PostDTO> postFindAll() {
+        return postRepo.findAll();
+    }
+
+    @Benchmark
+    public List<PostDTO> postFindFirstPage() {
+        return postRepo.findPage(null, null, 20);
+    }
+
+    @Benchmark
+    public Optional<PostDTO> postFindById(SeededDatabase db) {
+        return postRepo.findById(db.randomPostId());
+    }
+
+    @Benchmark
+    public List<CommentDTO> commentFindByPostId(SeededDatabase db) {
+        return commentRepo.findByPostId(db.randomPostId());
+    }
+}
@@ -0,0 +1,85 @@
+package com.contoso.socialapp.bench;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.service.ResponseBodyCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// What a cached GET /api/posts/{postId} or feed page saves over serializing the DTOs for every response.
+// Both write to a discarding stream like the servlet's; run with -prof gc to compare gc.alloc.rate.norm.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBodyBenchmark {
+    @Param({"1", "20"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private ResponseBodyCache cache;
+    private Object body;
+    private final OutputStream out = OutputStream.nullOutputStream();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The servlet stream stays open after the body is written, as it does under Spring's converter
+        mapper = new ObjectMapper().findAndRegisterModules().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        cache = new ResponseBodyCache(mapper, true, 16 * 1024 * 1024, 16);
+        String now = Instant.now().toString();
+        List<PostDTO> posts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            PostDTO p = new PostDTO();
+            p.setId(UUID.randomUUID().toString());
+            p.setUsername("user" + i);
+            p.setContent("Post number " + i + " about hiking boots, tents and the best trails near the coast");
+            p.setCreatedAt(now);
+            p.setUpdatedAt(now);
+            p.setLikesCount(i);
+            p.setCommentsCount(i % 7);
+            posts.add(p);
+        }
+        body = size == 1 ? posts.get(0) : posts;
+        cache.put("key", "\"v\"", body, null);
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        mapper.writeValue(out, body);
+    }
+
+    @Benchmark
+    public void cached() throws IOException {
+        try (ResponseBodyCache.Hit hit = cache.get("key", "\"v\"", false)) {
+            out.write(hit.bytes(), 0, hit.length());
+        }
+    }
+
+    @Benchmark
+    public void cachedGzip() throws IOException {
+        try (ResponseBodyCache.Hit hit = cache.get("key", "\"v\"", true)) {
+            out.write(hit.bytes(), 0, hit.length());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.contoso.socialapp.bench;
+
+import com.contoso.socialapp.Application;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application without the web layer against a fresh SQLite file holding {@code posts} posts with
+ * {@code commentsPerPost} comments each. Override the sizes with -p, e.g. {@code -PjmhArgs="-p posts=100000"}.
+ * Background flushers are switched off so they do not run inside measurements.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+    private static final int SEED_BATCH = 1000;
+
+    @Param("1000")
+    public int posts;
+
+    @Param("5")
+    public int commentsPerPost;
+
+    public ConfigurableApplicationContext context;
+    public List<String> postIds;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = File.createTempFile("socialapp-jmh-", ".db");
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:sqlite:" + file.getAbsolutePath(),
+                        "app.database.mode=recreate",
+                        "app.views.flush-interval-ms=0",
+                        "app.posts.hot.rescore-seconds=0",
+                        "app.tags.trending.checkpoint-seconds=0",
+                        "logging.level.root=WARN")
+                .run();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) new File(file.getAbsolutePath() + suffix).delete();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed() {
+        PostRepository postRepo = bean(PostRepository.class);
+        CommentRepository commentRepo = bean(CommentRepository.class);
+        TransactionTemplate tx = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        postIds = new ArrayList<>(posts);
+        Instant base = Instant.now().minusSeconds(posts);
+        for (int from = 0; from < posts; from += SEED_BATCH) {
+            List<Object[]> postRows = new ArrayList<>();
+            List<Object[]> commentRows = new ArrayList<>();
+            for (int i = from; i < Math.min(from + SEED_BATCH, posts); i++) {
+                String id = UUID.randomUUID().toString();
+                String at = base.plusSeconds(i).toString();
+                postIds.add(id);
+                postRows.add(new Object[]{id, "user" + (i % 100), "Post number " + i + " about the outdoors", at, at});
+                for (int c = 0; c < commentsPerPost; c++) {
+                    commentRows.add(new Object[]{UUID.randomUUID().toString(), id, "user" + (c % 100), "Comment " + c, at, at});
+                }
+            }
+            tx.executeWithoutResult(status -> {
+                postRepo.insertPosts(postRows);
+                if (!commentRows.isEmpty()) commentRepo.insertComments(commentRows);
+            });
+        }
+    }
+
+    public String randomPostId() {
+        return postIds.get(ThreadLocalRandom.current().nextInt(postIds.size()));
+    }
+}
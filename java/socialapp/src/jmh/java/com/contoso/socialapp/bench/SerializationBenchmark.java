@@ -0,0 +1,112 @@
+package com.contoso.socialapp.bench;
+
+import com.contoso.socialapp.model.dto.CommentDTO;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of a feed and a comment list response in each wire format, without Spring or the database.
+// Payload sizes are printed once per trial, since JMH only reports times.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"20", "100"})
+    public int size;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<PostDTO> posts;
+    private List<CommentDTO> comments;
+    private byte[] postBytes;
+    private byte[] commentBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        // A plain ObjectMapper like Boot's, copied per format the way WebConfig does it (JsonMapper refuses copyWith)
+        mapper = new ObjectMapper().findAndRegisterModules().copyWith(factory(format));
+        posts = new ArrayList<>(size);
+        comments = new ArrayList<>(size);
+        String now = Instant.now().toString();
+        String postId = UUID.randomUUID().toString();
+        for (int i = 0; i < size; i++) {
+            PostDTO p = new PostDTO();
+            p.setId(UUID.randomUUID().toString());
+            p.setUsername("user" + i);
+            p.setContent("Post number " + i + " about hiking boots, tents and the best trails near the coast");
+            p.setCreatedAt(now);
+            p.setUpdatedAt(now);
+            p.setLikesCount(i);
+            p.setCommentsCount(i % 7);
+            posts.add(p);
+
+            CommentDTO c = new CommentDTO();
+            c.setId(UUID.randomUUID().toString());
+            c.setPostId(postId);
+            c.setUsername("user" + i);
+            c.setContent("Comment " + i + ": the north ridge trail was muddy but worth it");
+            c.setCreatedAt(now);
+            c.setUpdatedAt(now);
+            comments.add(c);
+        }
+        postBytes = mapper.writeValueAsBytes(posts);
+        commentBytes = mapper.writeValueAsBytes(comments);
+        System.out.printf("%n%s payload for %d items: posts %d bytes, comments %d bytes%n",
+                format, size, postBytes.length, commentBytes.length);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+    @Benchmark
+    public byte[] writePostList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public PostDTO[] readPostList() throws IOException {
+        return mapper.readValue(postBytes, PostDTO[].class);
+    }
+
+    @Benchmark
+    public byte[] writeCommentList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(comments);
+    }
+
+    @Benchmark
+    public CommentDTO[] readCommentList() throws IOException {
+        return mapper.readValue(commentBytes, CommentDTO[].class);
+    }
+}
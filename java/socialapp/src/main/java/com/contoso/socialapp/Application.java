@@ -2,8 +2,10 @@ package com.contoso.socialapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 
-@SpringBootApplication
+// SqliteDataSourceConfig builds the pools for the jdbc engine; the memory engine must not get a default one
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
 public class Application {
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
@@ -1,52 +1,179 @@
 package com.contoso.socialapp.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.annotation.PostConstruct;
+import java.util.List;
 
+/**
+ * Brings the schema up to date on startup. The applied version is kept in SQLite's PRAGMA user_version and
+ * every migration runs once, in its own transaction, so booting against an existing database only costs
+ * a version check. With app.database.mode=recreate the tables are dropped first, as the FastAPI
+ * init_database does.
+ */
 @Component
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
 public class DatabaseInitializer {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseInitializer.class);
+
+    // Append only: a released migration must never change, add a new one instead
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "create tables",
+                    "CREATE TABLE IF NOT EXISTS posts ("
+                            + "id TEXT PRIMARY KEY,"
+                            + "username TEXT NOT NULL,"
+                            + "content TEXT NOT NULL,"
+                            + "created_at TEXT NOT NULL,"
+                            + "updated_at TEXT NOT NULL,"
+                            + "likes INTEGER NOT NULL,"
+                            + "likes_by TEXT NOT NULL"
+                            + ")",
+                    "CREATE TABLE IF NOT EXISTS comments ("
+                            + "id TEXT PRIMARY KEY,"
+                            + "post_id TEXT NOT NULL,"
+                            + "username TEXT NOT NULL,"
+                            + "content TEXT NOT NULL,"
+                            + "created_at TEXT NOT NULL,"
+                            + "updated_at TEXT NOT NULL,"
+                            + "likes INTEGER NOT NULL"
+                            + ")",
+                    "CREATE TABLE IF NOT EXISTS likes ("
+                            + "like_id TEXT PRIMARY KEY,"
+                            + "post_id TEXT NOT NULL,"
+                            + "username TEXT NOT NULL"
+                            + ")"),
+            new Migration(2, "query indexes",
+                    // Backs the keyset pagination of the post feed (ORDER BY created_at DESC, id DESC)
+                    "CREATE INDEX IF NOT EXISTS idx_posts_created_at_id ON posts (created_at, id)",
+                    // Backs per-post comment lookups and the comment counts embedded in post reads
+                    "CREATE INDEX IF NOT EXISTS idx_comments_post_id_created_at ON comments (post_id, created_at)",
+                    // Databases written before the unique index may hold duplicate likes; keep the first of each
+                    "DELETE FROM likes WHERE rowid NOT IN (SELECT MIN(rowid) FROM likes GROUP BY post_id, username)",
+                    // One like per user and post; lets LikeRepository.insertLikeIfAbsent use INSERT OR IGNORE.
+                    // Built before the recount so each per-post COUNT(*) is an index range, not a scan of likes
+                    "CREATE UNIQUE INDEX IF NOT EXISTS idx_likes_post_id_username ON likes (post_id, username)",
+                    "UPDATE posts SET likes = (SELECT COUNT(*) FROM likes l WHERE l.post_id = posts.id)"),
+            // External-content FTS5 indexes keyed by the base tables' rowid and kept in sync by triggers.
+            // Those rowids are not stable across VACUUM, so run INSERT INTO <x>_fts(<x>_fts) VALUES('rebuild') after one.
+            new Migration(3, "full-text search",
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS posts_fts USING fts5(content, content='posts', content_rowid='rowid')",
+                    "CREATE TRIGGER IF NOT EXISTS posts_fts_ai AFTER INSERT ON posts BEGIN "
+                            + "INSERT INTO posts_fts (rowid, content) VALUES (new.rowid, new.content); END",
+                    "CREATE TRIGGER IF NOT EXISTS posts_fts_ad AFTER DELETE ON posts BEGIN "
+                            + "INSERT INTO posts_fts (posts_fts, rowid, content) VALUES ('delete', old.rowid, old.content); END",
+                    "CREATE TRIGGER IF NOT EXISTS posts_fts_au AFTER UPDATE OF content ON posts BEGIN "
+                            + "INSERT INTO posts_fts (posts_fts, rowid, content) VALUES ('delete', old.rowid, old.content); "
+                            + "INSERT INTO posts_fts (rowid, content) VALUES (new.rowid, new.content); END",
+                    "INSERT INTO posts_fts (posts_fts) VALUES ('rebuild')",
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS comments_fts USING fts5(content, content='comments', content_rowid='rowid')",
+                    "CREATE TRIGGER IF NOT EXISTS comments_fts_ai AFTER INSERT ON comments BEGIN "
+                            + "INSERT INTO comments_fts (rowid, content) VALUES (new.rowid, new.content); END",
+                    "CREATE TRIGGER IF NOT EXISTS comments_fts_ad AFTER DELETE ON comments BEGIN "
+                            + "INSERT INTO comments_fts (comments_fts, rowid, content) VALUES ('delete', old.rowid, old.content); END",
+                    "CREATE TRIGGER IF NOT EXISTS comments_fts_au AFTER UPDATE OF content ON comments BEGIN "
+                            + "INSERT INTO comments_fts (comments_fts, rowid, content) VALUES ('delete', old.rowid, old.content); "
+                            + "INSERT INTO comments_fts (rowid, content) VALUES (new.rowid, new.content); END",
+                    "INSERT INTO comments_fts (comments_fts) VALUES ('rebuild')"),
+            new Migration(4, "tag index and trending checkpoints",
+                    // One row per (tag, post); refs counts how many sources (the post body and its comments)
+                    // carry the tag so an edit or delete only drops the row once the last source is gone.
+                    // created_at is the post's, which lets tag pages use the same keyset cursor as the feed.
+                    "CREATE TABLE IF NOT EXISTS post_tags ("
+                            + "tag TEXT NOT NULL,"
+                            + "post_id TEXT NOT NULL,"
+                            + "created_at TEXT NOT NULL,"
+                            + "refs INTEGER NOT NULL,"
+                            + "PRIMARY KEY (tag, post_id)"
+                            + ") WITHOUT ROWID",
+                    "CREATE INDEX IF NOT EXISTS idx_post_tags_tag_created_at ON post_tags (tag, created_at, post_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_post_tags_post_id ON post_tags (post_id)",
+                    // Snapshot of TrendingTags' minute ('m') and hour ('h') buckets, restored on startup
+                    "CREATE TABLE IF NOT EXISTS trending_buckets ("
+                            + "granularity TEXT NOT NULL,"
+                            + "bucket_start INTEGER NOT NULL,"
+                            + "tag TEXT NOT NULL,"
+                            + "count INTEGER NOT NULL,"
+                            + "PRIMARY KEY (granularity, bucket_start, tag)"
+                            + ") WITHOUT ROWID"),
+            new Migration(5, "author indexes",
+                    // Back the per-user timelines (WHERE username = ? ORDER BY created_at DESC, id DESC)
+                    "CREATE INDEX IF NOT EXISTS idx_posts_username_created_at ON posts (username, created_at, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_comments_username_created_at ON comments (username, created_at, id)"),
+            new Migration(6, "view counters",
+                    "ALTER TABLE posts ADD COLUMN views INTEGER NOT NULL DEFAULT 0",
+                    "ALTER TABLE posts ADD COLUMN unique_viewers INTEGER NOT NULL DEFAULT 0",
+                    // HyperLogLog registers behind unique_viewers, kept apart so post rows stay small
+                    "CREATE TABLE IF NOT EXISTS post_view_sketches ("
+                            + "post_id TEXT PRIMARY KEY,"
+                            + "registers BLOB NOT NULL"
+                            + ") WITHOUT ROWID")
+    );
 
     private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final String mode;
 
     @Autowired
-    public DatabaseInitializer(JdbcTemplate jdbc) {
+    public DatabaseInitializer(JdbcTemplate jdbc, PlatformTransactionManager txManager,
+                               @Value("${app.database.mode:recreate}") String mode) {
         this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.mode = mode;
     }
 
     @PostConstruct
     public void init() {
-        // Drop and recreate tables on every startup to mirror FastAPI init_database behavior
-        jdbc.execute("DROP TABLE IF EXISTS likes");
-        jdbc.execute("DROP TABLE IF EXISTS comments");
-        jdbc.execute("DROP TABLE IF EXISTS posts");
-
-        jdbc.execute("CREATE TABLE posts ("
-                + "id TEXT PRIMARY KEY,"
-                + "username TEXT NOT NULL,"
-                + "content TEXT NOT NULL,"
-                + "created_at TEXT NOT NULL,"
-                + "updated_at TEXT NOT NULL,"
-                + "likes INTEGER NOT NULL,"
-                + "likes_by TEXT NOT NULL"
-                + ")");
-
-        jdbc.execute("CREATE TABLE comments ("
-                + "id TEXT PRIMARY KEY,"
-                + "post_id TEXT NOT NULL,"
-                + "username TEXT NOT NULL,"
-                + "content TEXT NOT NULL,"
-                + "created_at TEXT NOT NULL,"
-                + "updated_at TEXT NOT NULL,"
-                + "likes INTEGER NOT NULL"
-                + ")");
-
-        jdbc.execute("CREATE TABLE likes ("
-                + "like_id TEXT PRIMARY KEY,"
-                + "post_id TEXT NOT NULL,"
-                + "username TEXT NOT NULL"
-                + ")");
+        if ("recreate".equalsIgnoreCase(mode)) {
+            jdbc.execute("DROP TABLE IF EXISTS likes");
+            jdbc.execute("DROP TABLE IF EXISTS comments");
+            jdbc.execute("DROP TABLE IF EXISTS posts");
+            jdbc.execute("DROP TABLE IF EXISTS posts_fts");
+            jdbc.execute("DROP TABLE IF EXISTS comments_fts");
+            jdbc.execute("DROP TABLE IF EXISTS post_tags");
+            jdbc.execute("DROP TABLE IF EXISTS trending_buckets");
+            jdbc.execute("DROP TABLE IF EXISTS post_view_sketches");
+            jdbc.execute("PRAGMA user_version = 0");
+        } else if (!"persistent".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException("app.database.mode must be 'recreate' or 'persistent', was '" + mode + "'");
+        }
+        migrate();
+    }
+
+    int currentVersion() {
+        Integer v = jdbc.queryForObject("PRAGMA user_version", Integer.class);
+        return v == null ? 0 : v;
+    }
+
+    private void migrate() {
+        int current = currentVersion();
+        for (Migration m : MIGRATIONS) {
+            if (m.version <= current) continue;
+            log.info("Applying schema migration {} ({})", m.version, m.description);
+            tx.executeWithoutResult(status -> {
+                for (String sql : m.statements) jdbc.execute(sql);
+                // PRAGMA does not take bind parameters; the version is a trusted int
+                jdbc.execute("PRAGMA user_version = " + m.version);
+            });
+        }
+    }
+
+    static final class Migration {
+        final int version;
+        final String description;
+        final String[] statements;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
     }
 }
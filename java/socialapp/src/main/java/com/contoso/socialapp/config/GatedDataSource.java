@@ -0,0 +1,158 @@
+package com.contoso.socialapp.config;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fair, bounded gate in front of a connection pool. Callers queue in FIFO order on a semaphore sized to the
+ * pool and hold a permit until they close the connection. With virtual threads this keeps thousands of
+ * requests parked cheaply here, instead of contending inside the pool or pinning carrier threads in the
+ * SQLite driver, and it makes the time spent waiting for the database measurable.
+ */
+public class GatedDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final String name;
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long timeoutMs;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public GatedDataSource(String name, DataSource target, int maxPermits, long timeoutMs) {
+        super(target);
+        this.name = name;
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int maxPermits() {
+        return maxPermits;
+    }
+
+    public int inUse() {
+        return maxPermits - permits.availablePermits();
+    }
+
+    public int queued() {
+        return permits.getQueueLength();
+    }
+
+    public long acquired() {
+        return acquired.sum();
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    public long totalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    public Map<String, Object> stats() {
+        long count = acquired.sum();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("permits", maxPermits);
+        m.put("inUse", inUse());
+        m.put("queued", queued());
+        m.put("acquired", count);
+        m.put("timeouts", timeouts.sum());
+        m.put("avgWaitMs", count == 0 ? 0.0 : totalWaitNanos.sum() / 1e6 / count);
+        m.put("maxWaitMs", maxWaitNanos.get() / 1e6);
+        return m;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable c) c.close();
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a " + name + " connection", e);
+        }
+        if (!ok) {
+            timeouts.increment();
+            throw new SQLTimeoutException("Timed out after " + timeoutMs + " ms waiting for a " + name + " connection");
+        }
+        long waited = System.nanoTime() - start;
+        acquired.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    // Returns the permit exactly once, when the caller closes the connection
+    private Connection gated(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(), new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "getTargetConnection": return target;
+                        default: break;
+                    }
+                    if (method.getName().equals("close")) {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) permits.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,62 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.service.LikeWriteBuffer;
+import com.contoso.socialapp.service.ViewCounter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the storage layer that Spring Boot cannot see on its own: occupancy and wait time at each
+ * {@link GatedDataSource}, SQLite lock retries, and the in-memory write queues in front of the writer.
+ * Endpoint timers come from Boot's http.server.requests and the @Timed repositories and services;
+ * everything is scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+    public MeterBinder sqliteConnectionMetrics(List<GatedDataSource> gates, List<SqliteBusyHandler> busyHandlers) {
+        return registry -> {
+            for (GatedDataSource gate : gates) {
+                String pool = gate.getName();
+                Gauge.builder("sqlite.connections.max", gate, GatedDataSource::maxPermits)
+                        .tag("pool", pool).description("Connections the gate admits at once").register(registry);
+                Gauge.builder("sqlite.connections.active", gate, GatedDataSource::inUse)
+                        .tag("pool", pool).description("Connections currently held by callers").register(registry);
+                Gauge.builder("sqlite.connections.pending", gate, GatedDataSource::queued)
+                        .tag("pool", pool).description("Callers queued for a connection").register(registry);
+                FunctionTimer.builder("sqlite.connections.wait", gate, GatedDataSource::acquired,
+                                GatedDataSource::totalWaitNanos, TimeUnit.NANOSECONDS)
+                        .tag("pool", pool).description("Time spent queued for a connection").register(registry);
+                FunctionCounter.builder("sqlite.connections.timeouts", gate, GatedDataSource::timeouts)
+                        .tag("pool", pool).description("Callers that gave up waiting for a connection").register(registry);
+            }
+            for (SqliteBusyHandler handler : busyHandlers) {
+                String pool = handler.getName();
+                FunctionCounter.builder("sqlite.busy.retries", handler, SqliteBusyHandler::retries)
+                        .tag("pool", pool).description("Retries after SQLITE_BUSY").register(registry);
+                FunctionCounter.builder("sqlite.busy.exhausted", handler, SqliteBusyHandler::exhausted)
+                        .tag("pool", pool).description("SQLITE_BUSY errors returned after the busy timeout").register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder writeQueueMetrics(LikeWriteBuffer likeBuffer, ViewCounter views) {
+        return registry -> {
+            Gauge.builder("socialapp.likes.write.pending", likeBuffer, LikeWriteBuffer::pending)
+                    .description("Like and unlike intents waiting for the next batch").register(registry);
+            Gauge.builder("socialapp.views.tracked", views, ViewCounter::tracked)
+                    .description("Posts whose view tallies are held in memory between flushes").register(registry);
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.contoso.socialapp.config;
+
+import org.sqlite.BusyHandler;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replacement for SQLite's built-in busy_timeout that counts every retry. SQLite calls it whenever a lock
+ * is held by another connection (a checkpoint, or a writer outside this JVM); it backs off on the same
+ * schedule as sqlite3_busy_timeout and gives up with SQLITE_BUSY once timeoutMs has been spent waiting.
+ */
+public class SqliteBusyHandler extends BusyHandler {
+    private static final int[] DELAYS_MS = {1, 2, 5, 10, 15, 20, 25, 25, 25, 50, 50, 100};
+
+    private final String name;
+    private final long timeoutMs;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public SqliteBusyHandler(String name, long timeoutMs) {
+        this.name = name;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public void install(Connection connection) throws SQLException {
+        BusyHandler.setHandler(connection, this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    // Busy waits that ran out of time and surfaced as SQLITE_BUSY to the caller
+    public long exhausted() {
+        return exhausted.sum();
+    }
+
+    @Override
+    protected int callback(int previousInvocations) {
+        long waited = waitedBefore(previousInvocations);
+        if (waited >= timeoutMs) {
+            exhausted.increment();
+            return 0;
+        }
+        retries.increment();
+        long delay = Math.min(delay(previousInvocations), timeoutMs - waited);
+        LockSupport.parkNanos(delay * 1_000_000L);
+        return 1;
+    }
+
+    private static long delay(int invocation) {
+        return DELAYS_MS[Math.min(invocation, DELAYS_MS.length - 1)];
+    }
+
+    private static long waitedBefore(int invocations) {
+        long total = 0;
+        for (int i = 0; i < Math.min(invocations, DELAYS_MS.length); i++) total += DELAYS_MS[i];
+        if (invocations > DELAYS_MS.length) total += (long) (invocations - DELAYS_MS.length) * DELAYS_MS[DELAYS_MS.length - 1];
+        return total;
+    }
+}
@@ -0,0 +1,159 @@
+package com.contoso.socialapp.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * SQLite storage in WAL mode with one writer connection and a pool of read-only connections.
+ * WAL lets readers run concurrently with the single writer, and funnelling every write through
+ * one pooled connection serializes writers in the JVM instead of failing with SQLITE_BUSY.
+ * Each pool sits behind a {@link GatedDataSource} so waiting callers queue fairly and their wait is measured,
+ * and every connection gets a {@link SqliteBusyHandler} so lock retries inside SQLite are counted too.
+ * Between the gate and the pool, {@link TracingDataSource} times each statement for {@link SqlTracer}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+public class SqliteDataSourceConfig {
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${app.sqlite.synchronous:NORMAL}")
+    private String synchronous;
+
+    @Value("${app.sqlite.busy-timeout-ms:5000}")
+    private int busyTimeoutMs;
+
+    // Negative values are KiB, so -65536 is a 64 MiB page cache per connection
+    @Value("${app.sqlite.cache-size:-65536}")
+    private int cacheSize;
+
+    @Value("${app.sqlite.mmap-size:268435456}")
+    private long mmapSize;
+
+    @Value("${app.sqlite.read-pool-size:0}")
+    private int readPoolSize;
+
+    // Writers queue here for the single connection; keep it above the slowest expected write transaction
+    @Value("${app.sqlite.write-timeout-ms:30000}")
+    private long writeTimeoutMs;
+
+    @Value("${app.sqlite.read-timeout-ms:30000}")
+    private long readTimeoutMs;
+
+    // false turns both gates into pass-throughs so callers wait inside Hikari instead; for measuring the gates
+    @Value("${app.sqlite.gate.enabled:true}")
+    private boolean gateEnabled;
+
+    @Value("${app.sql.trace.enabled:true}")
+    private boolean traceEnabled;
+
+    @Value("${app.sql.trace.slow-query-ms:200}")
+    private long slowQueryMs;
+
+    @Value("${app.sql.trace.max-statements:500}")
+    private int maxTracedStatements;
+
+    @Bean
+    @Primary
+    public GatedDataSource dataSource() {
+        SQLiteConfig config = baseConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+
+        HikariConfig pool = new HikariConfig();
+        pool.setPoolName("sqlite-writer");
+        pool.setDataSource(sqliteDataSource(config, writerBusyHandler()));
+        pool.setMaximumPoolSize(1);
+        pool.setMinimumIdle(1);
+        pool.setConnectionTimeout(writeTimeoutMs);
+        return gated("sqlite-writer", traced(new HikariDataSource(pool)), 1, writeTimeoutMs);
+    }
+
+    @Bean
+    public GatedDataSource readDataSource() {
+        SQLiteConfig config = baseConfig();
+        config.setReadOnly(true);
+
+        // Not started until the first read, by which time the writer has created the file and switched it to WAL
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("sqlite-reader");
+        pool.setDataSource(sqliteDataSource(config, readerBusyHandler()));
+        int size = readPoolSize > 0 ? readPoolSize : Runtime.getRuntime().availableProcessors();
+        pool.setMaximumPoolSize(size);
+        pool.setConnectionTimeout(readTimeoutMs);
+        pool.setReadOnly(true);
+        return gated("sqlite-reader", traced(pool), size, readTimeoutMs);
+    }
+
+    @Bean
+    public SqlTracer sqlTracer() {
+        return new SqlTracer(slowQueryMs, maxTracedStatements);
+    }
+
+    @Bean
+    public SqliteBusyHandler writerBusyHandler() {
+        return new SqliteBusyHandler("sqlite-writer", busyTimeoutMs);
+    }
+
+    @Bean
+    public SqliteBusyHandler readerBusyHandler() {
+        return new SqliteBusyHandler("sqlite-reader", busyTimeoutMs);
+    }
+
+    @Bean
+    @Primary
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public JdbcTemplate readJdbcTemplate(@Qualifier("readDataSource") DataSource readDataSource) {
+        return new JdbcTemplate(readDataSource);
+    }
+
+    private GatedDataSource gated(String name, DataSource pool, int permits, long timeoutMs) {
+        // Unlimited permits never block, but connections are still counted
+        return new GatedDataSource(name, pool, gateEnabled ? permits : Integer.MAX_VALUE, timeoutMs);
+    }
+
+    private DataSource traced(DataSource pool) {
+        return traceEnabled ? new TracingDataSource(pool, sqlTracer()) : pool;
+    }
+
+    private SQLiteConfig baseConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(synchronous));
+        config.setBusyTimeout(busyTimeoutMs);
+        config.setCacheSize(cacheSize);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, Long.toString(mmapSize));
+        return config;
+    }
+
+    // The busy handler replaces the busy_timeout pragma from baseConfig, keeping the same timeout
+    private DataSource sqliteDataSource(SQLiteConfig config, SqliteBusyHandler busyHandler) {
+        SQLiteDataSource ds = new SQLiteDataSource(config) {
+            @Override
+            public SQLiteConnection getConnection(String username, String password) throws SQLException {
+                SQLiteConnection connection = super.getConnection(username, password);
+                busyHandler.install(connection);
+                return connection;
+            }
+        };
+        ds.setUrl(url);
+        return ds;
+    }
+}
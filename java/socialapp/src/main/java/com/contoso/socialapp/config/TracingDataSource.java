@@ -0,0 +1,236 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.jfr.SqlStatementEvent;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times every statement executed on connections from the target pool and reports it to a {@link SqlTracer}.
+ * A query is timed from execute until its result set is closed, because SQLite produces rows lazily on
+ * next(); updates and batches are timed around the execute call. Sits below {@link GatedDataSource}, so
+ * time spent queueing for a connection is not counted against the statement. Each execution is also
+ * emitted as a {@link SqlStatementEvent} while a flight recording is running.
+ */
+public class TracingDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final SqlTracer tracer;
+
+    public TracingDataSource(DataSource target, SqlTracer tracer) {
+        super(target);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return traced(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return traced(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable c) c.close();
+    }
+
+    private Connection traced(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        default: break;
+                    }
+                    Object result = invoke(target, method, args);
+                    return switch (method.getName()) {
+                        case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                        case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                        default -> result;
+                    };
+                });
+    }
+
+    private Object statement(Class<? extends Statement> type, Statement target, String sql) {
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                new TracedStatement(target, sql));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class TracedStatement implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final List<String> params = new ArrayList<>();
+        private int batches;
+
+        // The query whose result set is still open
+        private SqlTracer.Stats open;
+        private long openStart;
+        private long openRows;
+        private String openParams;
+        private SqlStatementEvent openEvent;
+
+        TracedStatement(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "executeQuery", "executeUpdate", "executeLargeUpdate", "execute", "executeBatch", "executeLargeBatch":
+                    return execute(method, args);
+                case "getResultSet": {
+                    Object rs = TracingDataSource.invoke(target, method, args);
+                    return open == null || rs == null ? rs : resultSet((ResultSet) rs);
+                }
+                case "addBatch":
+                    batches++;
+                    break;
+                case "clearBatch":
+                    batches = 0;
+                    break;
+                case "close":
+                    finishQuery();
+                    break;
+                default:
+                    if (preparedSql != null && name.startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer index) {
+                        bind(index, name, args[1]);
+                    }
+                    break;
+            }
+            return TracingDataSource.invoke(target, method, args);
+        }
+
+        private void bind(int index, String method, Object value) {
+            String type = method.equals("setObject")
+                    ? (value == null ? "Null" : value.getClass().getSimpleName())
+                    : method.substring(3);
+            while (params.size() < index) params.add("?");
+            params.set(index - 1, type);
+        }
+
+        private String shape() {
+            String shape = "(" + String.join(", ", params) + ")";
+            return batches > 1 ? shape + " x " + batches : shape;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishQuery();
+            String sql = preparedSql != null ? preparedSql : (batches > 0 || args == null ? "(batch)" : (String) args[0]);
+            SqlTracer.Stats stats = tracer.lookup(sql);
+            String shape = shape();
+            SqlStatementEvent event = beginEvent();
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = TracingDataSource.invoke(target, method, args);
+            } catch (Throwable e) {
+                batches = 0;
+                tracer.record(stats, System.nanoTime() - start, 0, shape, true);
+                commitEvent(event, stats, 0, true);
+                throw e;
+            }
+            batches = 0;
+            if (result instanceof ResultSet || Boolean.TRUE.equals(result)) {
+                open = stats;
+                openStart = start;
+                openRows = 0;
+                openParams = shape;
+                openEvent = event;
+                return result instanceof ResultSet rs ? resultSet(rs) : result;
+            }
+            long rows = rowsAffected(result);
+            tracer.record(stats, System.nanoTime() - start, rows, shape, false);
+            commitEvent(event, stats, rows, false);
+            return result;
+        }
+
+        private long rowsAffected(Object result) throws SQLException {
+            if (result instanceof Integer n) return Math.max(0, n);
+            if (result instanceof Long n) return Math.max(0, n);
+            if (result instanceof int[] counts) {
+                long sum = 0;
+                for (int n : counts) sum += Math.max(0, n);
+                return sum;
+            }
+            if (result instanceof long[] counts) {
+                long sum = 0;
+                for (long n : counts) sum += Math.max(0, n);
+                return sum;
+            }
+            return Math.max(0, target.getUpdateCount());
+        }
+
+        private void finishQuery() {
+            if (open == null) return;
+            tracer.record(open, System.nanoTime() - openStart, openRows, openParams, false);
+            commitEvent(openEvent, open, openRows, false);
+            open = null;
+            openEvent = null;
+        }
+
+        private SqlStatementEvent beginEvent() {
+            SqlStatementEvent event = new SqlStatementEvent();
+            if (!event.isEnabled()) return null;
+            event.begin();
+            return event;
+        }
+
+        private void commitEvent(SqlStatementEvent event, SqlTracer.Stats stats, long rows, boolean failed) {
+            if (event == null) return;
+            event.end();
+            if (!event.shouldCommit()) return;
+            event.fingerprint = stats.fingerprint;
+            event.rows = rows;
+            event.failed = failed;
+            event.commit();
+        }
+
+        private ResultSet resultSet(ResultSet rs) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "equals": return proxy == args[0];
+                            case "hashCode": return System.identityHashCode(proxy);
+                            case "next": {
+                                Object more = TracingDataSource.invoke(rs, method, args);
+                                if (Boolean.TRUE.equals(more)) openRows++;
+                                return more;
+                            }
+                            case "close": {
+                                try {
+                                    return TracingDataSource.invoke(rs, method, args);
+                                } finally {
+                                    finishQuery();
+                                }
+                            }
+                            default: return TracingDataSource.invoke(rs, method, args);
+                        }
+                    });
+        }
+    }
+}
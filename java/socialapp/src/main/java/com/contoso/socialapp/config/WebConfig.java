@@ -0,0 +1,53 @@
+package com.contoso.socialapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Serves and accepts Smile ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor})
+ * next to JSON for service-to-service callers, chosen by the Accept and Content-Type headers.
+ * Both mappers are copies of Boot's ObjectMapper, so modules and spring.jackson.* settings carry over.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final ObjectMapper objectMapper;
+
+    public WebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // Spring MVC adds its own Smile and CBOR converters when the formats are on the classpath;
+    // those use a fresh mapper, so they are swapped for ones built from the application's
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(c -> c instanceof MappingJackson2SmileHttpMessageConverter
+                || c instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())));
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+    }
+
+    // ETags are per resource version, not per format, so shared caches must key on Accept too
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,31 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.service.PostCache;
+import com.contoso.socialapp.service.ResponseBodyCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+public class CacheController {
+    private final PostCache postCache;
+    private final ResponseBodyCache bodies;
+
+    @Autowired
+    public CacheController(PostCache postCache, ResponseBodyCache bodies) {
+        this.postCache = postCache;
+        this.bodies = bodies;
+    }
+
+    // Hit, miss and eviction counters per cache region, used to size app.cache.max-weight-bytes and app.cache.bodies.max-bytes
+    @GetMapping("/admin/cache/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>(postCache.stats());
+        stats.put("bodies", bodies.stats());
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,60 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.jfr.FlightRecordings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+@RestController
+public class FlightRecorderController {
+    private final FlightRecordings recordings;
+
+    @Autowired
+    public FlightRecorderController(FlightRecordings recordings) {
+        this.recordings = recordings;
+    }
+
+    @GetMapping("/admin/jfr")
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(recordings.status());
+    }
+
+    // Starts a bounded recording; reproduce the slow request, then call stop to download it
+    @PostMapping("/admin/jfr/start")
+    public ResponseEntity<Map<String, Object>> start(@RequestParam(value = "seconds", defaultValue = "60") long seconds,
+                                                     @RequestParam(value = "settings", defaultValue = "profile") String settings) {
+        return ResponseEntity.ok(recordings.start(seconds, settings));
+    }
+
+    // Streams the .jfr file for JDK Mission Control or `jfr print`, then deletes the temporary copy
+    @PostMapping("/admin/jfr/stop")
+    public ResponseEntity<StreamingResponseBody> stop() throws IOException {
+        Path file = recordings.stop();
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        String name = "socialapp-" + Instant.now().toString().replace(':', '-') + ".jfr";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(name).build().toString())
+                .body(body);
+    }
+}
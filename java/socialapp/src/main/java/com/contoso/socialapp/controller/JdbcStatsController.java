@@ -0,0 +1,50 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.config.GatedDataSource;
+import com.contoso.socialapp.config.SqlTracer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcStatsController {
+    private final List<GatedDataSource> gates;
+    private final SqlTracer sqlTracer;
+
+    @Autowired
+    public JdbcStatsController(List<GatedDataSource> gates, SqlTracer sqlTracer) {
+        this.gates = gates;
+        this.sqlTracer = sqlTracer;
+    }
+
+    // Queue length and wait time at each connection gate; a growing avgWaitMs means SQLite is the bottleneck
+    @GetMapping("/admin/jdbc/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> stats() {
+        Map<String, Map<String, Object>> out = new LinkedHashMap<>();
+        for (GatedDataSource gate : gates) out.put(gate.getName(), gate.stats());
+        return ResponseEntity.ok(out);
+    }
+
+    // Latency percentiles and row counts per SQL fingerprint, most total time first
+    @GetMapping("/admin/sql/stats")
+    public ResponseEntity<List<Map<String, Object>>> sqlStats(@RequestParam(value = "limit", defaultValue = "50") int limit) {
+        if (limit < 1) throw new com.contoso.socialapp.exception.BadRequestException("limit must be positive");
+        return ResponseEntity.ok(sqlTracer.stats(limit));
+    }
+
+    // Starts a fresh measurement window, e.g. before a load test
+    @DeleteMapping("/admin/sql/stats")
+    public ResponseEntity<Void> resetSqlStats() {
+        sqlTracer.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
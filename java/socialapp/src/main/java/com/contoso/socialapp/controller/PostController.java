@@ -2,17 +2,31 @@ package com.contoso.socialapp.controller;
 
 import com.contoso.socialapp.model.dto.*;
 import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.ContentVersions;
+import com.contoso.socialapp.service.FeedEventHub;
 import com.contoso.socialapp.service.LikeService;
 import com.contoso.socialapp.service.PostService;
+import com.contoso.socialapp.service.ResponseBodyCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api")
@@ -21,17 +35,48 @@ public class PostController {
     private final PostService postService;
     private final CommentService commentService;
     private final LikeService likeService;
+    private final ContentVersions versions;
+    private final Validator validator;
+    private final FeedEventHub events;
+    private final ResponseBodyCache bodies;
 
     @Autowired
-    public PostController(PostService postService, CommentService commentService, LikeService likeService) {
+    public PostController(PostService postService, CommentService commentService, LikeService likeService,
+                          ContentVersions versions, Validator validator, FeedEventHub events, ResponseBodyCache bodies) {
         this.postService = postService;
         this.commentService = commentService;
         this.likeService = likeService;
+        this.versions = versions;
+        this.validator = validator;
+        this.events = events;
+        this.bodies = bodies;
     }
 
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int HOT_PAGE_SIZE = 20;
+    static final String VIEWER_HEADER = "X-Viewer-Id";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @GetMapping("/posts")
-    public ResponseEntity<List<PostDTO>> listPosts() {
-        return ResponseEntity.ok(postService.listPosts());
+    public ResponseEntity<List<PostDTO>> listPosts(@RequestParam(value = "limit", required = false) Integer limit,
+                                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                                   HttpServletRequest servletRequest, HttpServletResponse response,
+                                                   WebRequest request) throws IOException {
+        int pageSize = limit == null ? MAX_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new com.contoso.socialapp.exception.BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ContentVersions.Version version = versions.feed();
+        if (notModified(request, servletRequest, response, version)) return null;
+        // Without paging parameters keep returning the whole feed for existing clients
+        if (limit == null && cursor == null) return ResponseEntity.ok(postService.listPosts());
+        // Not in the body cache: the feed ETag moves on every write anywhere, so a stored page would rarely be
+        // served before going stale, and the dead bytes would push live post bodies out of the arena
+        PostPage page = postService.listPosts(pageSize, cursor);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor() != null) ok.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        return ok.body(page.getItems());
     }
 
     @PostMapping("/posts")
@@ -40,10 +85,61 @@ public class PostController {
         return ResponseEntity.status(HttpStatus.CREATED).body(p);
     }
 
+    // Invalid items are reported per index and skipped; the valid ones are all created in one transaction
+    @PostMapping("/posts:batch")
+    public ResponseEntity<List<BatchItemResult<PostDTO>>> createPosts(@RequestBody List<NewPostRequest> reqs) {
+        checkBatchSize(reqs);
+        return ResponseEntity.ok(createBatch(reqs, postService::createPosts));
+    }
+
+    // Live feed of every post, comment and like-count change; the connection holds no thread while idle
+    @GetMapping(value = "/posts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPosts() {
+        return subscribe(null);
+    }
+
+    // Ranked by likes, comments and age; the ranking is kept in memory, see HotPosts
+    @GetMapping("/posts/hot")
+    public ResponseEntity<List<PostDTO>> hotPosts(@RequestParam(value = "limit", required = false) Integer limit,
+                                                  @RequestParam(value = "cursor", required = false) String cursor) {
+        int pageSize = limit == null ? HOT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new com.contoso.socialapp.exception.BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        PostPage page = postService.listHotPosts(pageSize, cursor);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor() != null) ok.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        return ok.body(page.getItems());
+    }
+
     @GetMapping("/posts/{postId}")
-    public ResponseEntity<PostDTO> getPost(@PathVariable("postId") String postId) {
+    public ResponseEntity<PostDTO> getPost(@PathVariable("postId") String postId,
+                                           @RequestHeader(value = VIEWER_HEADER, required = false) String viewer,
+                                           HttpServletRequest servletRequest, HttpServletResponse response,
+                                           WebRequest request) throws IOException {
+        // Anonymous readers are told apart by address; a 304 still counts as a view
+        String viewerKey = viewer != null && !viewer.isBlank() ? "id:" + viewer : "ip:" + servletRequest.getRemoteAddr();
+        ContentVersions.Version version = versions.post(postId);
+        requireExistingIfConditional(request, postId);
+        if (notModified(request, servletRequest, response, version)) {
+            postService.recordView(postId, viewerKey);
+            return null;
+        }
+        String key = ResponseBodyCache.postKey(postId);
+        boolean cacheable = wantsJson(servletRequest);
+        if (cacheable) {
+            try (ResponseBodyCache.Hit hit = bodies.get(key, version.getEtag(), acceptsGzip(servletRequest))) {
+                if (hit != null) {
+                    postService.recordView(postId, viewerKey);
+                    writeCached(response, version, hit);
+                    return null;
+                }
+            }
+        }
         Optional<PostDTO> p = postService.getPostById(postId);
         if (p.isEmpty()) throw new com.contoso.socialapp.exception.ResourceNotFoundException("Post with ID '" + postId + "' not found");
+        postService.recordView(postId, viewerKey);
+        if (cacheable) bodies.put(key, version.getEtag(), p.get(), null);
         return ResponseEntity.ok(p.get());
     }
 
@@ -61,9 +157,18 @@ public class PostController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping(value = "/posts/{postId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPostEvents(@PathVariable("postId") String postId) {
+        if (!postService.postExists(postId)) throw new com.contoso.socialapp.exception.ResourceNotFoundException("Post with ID '" + postId + "' not found");
+        return subscribe(postId);
+    }
+
     // Comments
     @GetMapping("/posts/{postId}/comments")
-    public ResponseEntity<List<CommentDTO>> listComments(@PathVariable("postId") String postId) {
+    public ResponseEntity<List<CommentDTO>> listComments(@PathVariable("postId") String postId, WebRequest request) {
+        ContentVersions.Version version = versions.comments(postId);
+        requireExistingIfConditional(request, postId);
+        if (notModified(request, version)) return null;
         // Verify post exists
         Optional<PostDTO> p = postService.getPostById(postId);
         if (p.isEmpty()) throw new com.contoso.socialapp.exception.ResourceNotFoundException("Post with ID '" + postId + "' not found");
@@ -77,6 +182,13 @@ public class PostController {
         return ResponseEntity.status(HttpStatus.CREATED).body(c.get());
     }
 
+    @PostMapping("/posts/{postId}/comments:batch")
+    public ResponseEntity<List<BatchItemResult<CommentDTO>>> createComments(@PathVariable("postId") String postId, @RequestBody List<NewCommentRequest> reqs) {
+        checkBatchSize(reqs);
+        return ResponseEntity.ok(createBatch(reqs, valid -> commentService.createComments(postId, valid)
+                .orElseThrow(() -> new com.contoso.socialapp.exception.ResourceNotFoundException("Post with ID '" + postId + "' not found"))));
+    }
+
     @GetMapping("/posts/{postId}/comments/{commentId}")
     public ResponseEntity<CommentDTO> getComment(@PathVariable("postId") String postId, @PathVariable("commentId") String commentId) {
         var c = commentService.getComment(postId, commentId);
@@ -113,4 +225,139 @@ public class PostController {
         likeService.removeLike(postId, req.getUsername());
         return ResponseEntity.noContent().build();
     }
+
+    private SseEmitter subscribe(String postId) {
+        // 0 disables the async request timeout; dead connections are found by the hub's heartbeats
+        SseEmitter emitter = new SseEmitter(0L);
+        FeedEventHub.Subscription subscription = events.subscribe(postId, new FeedEventHub.Sink() {
+            @Override
+            public void send(com.contoso.socialapp.model.dto.FeedEvent event) throws Exception {
+                emitter.send(SseEmitter.event().id(Long.toString(event.getId())).name(event.getType())
+                        .data(event.getData(), MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void heartbeat() throws Exception {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
+    }
+
+    private static void checkBatchSize(List<?> reqs) {
+        if (reqs == null || reqs.isEmpty() || reqs.size() > MAX_BATCH_SIZE) {
+            throw new com.contoso.socialapp.exception.BadRequestException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " items");
+        }
+    }
+
+    /**
+     * Validates each request on its own, passes the valid ones to {@code create} in order and
+     * returns one result per request at its original index.
+     */
+    private <R, T> List<BatchItemResult<T>> createBatch(List<R> reqs, Function<List<R>, List<T>> create) {
+        List<BatchItemResult<T>> results = new ArrayList<>(reqs.size());
+        List<R> valid = new ArrayList<>(reqs.size());
+        List<Integer> validIndexes = new ArrayList<>(reqs.size());
+        for (int i = 0; i < reqs.size(); i++) {
+            R req = reqs.get(i);
+            List<String> errors = new ArrayList<>();
+            if (req == null) {
+                errors.add("item must not be null");
+            } else {
+                for (ConstraintViolation<R> v : validator.validate(req)) {
+                    errors.add(v.getPropertyPath() + " " + v.getMessage());
+                }
+            }
+            if (errors.isEmpty()) {
+                valid.add(req);
+                validIndexes.add(i);
+                results.add(null);
+            } else {
+                results.add(BatchItemResult.invalid(i, errors));
+            }
+        }
+        List<T> created = create.apply(valid);
+        for (int j = 0; j < created.size(); j++) {
+            int i = validIndexes.get(j);
+            results.set(i, BatchItemResult.created(i, created.get(j)));
+        }
+        return results;
+    }
+
+    // Cached bodies are JSON only; Smile and CBOR callers go through the message converters as before
+    private boolean wantsJson(HttpServletRequest request) {
+        if (!bodies.isEnabled()) return false;
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) return true;
+        if (accept.contains("smile") || accept.contains("cbor")) return false;
+        return accept.contains("json") || accept.contains("*/*");
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String encoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return encoding != null && encoding.contains("gzip");
+    }
+
+    /**
+     * Writes a cached body as the complete response, keeping the Last-Modified header and, for the
+     * identity body, the ETag that notModified has already set.
+     */
+    private static void writeCached(HttpServletResponse response, ContentVersions.Version version,
+                                    ResponseBodyCache.Hit hit) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (hit.isGzip()) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setHeader(HttpHeaders.ETAG, gzipEtag(version));
+        }
+        response.setContentLength(hit.length());
+        response.getOutputStream().write(hit.bytes(), 0, hit.length());
+    }
+
+    // Every id never written since startup shares the startup version, so a replayed tag or date says nothing
+    // about whether this post exists; look it up (usually a PostCache hit) before a 304 can answer for it
+    private void requireExistingIfConditional(WebRequest request, String postId) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null && request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null) return;
+        if (postService.getPostById(postId).isEmpty()) {
+            throw new com.contoso.socialapp.exception.ResourceNotFoundException("Post with ID '" + postId + "' not found");
+        }
+    }
+
+    // The gzip body is a different byte sequence, so it gets its own strong tag: "<version>-gzip"
+    private static String gzipEtag(ContentVersions.Version version) {
+        String etag = version.getEtag();
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * notModified for the reads the body cache may answer with gzip. Either encoding's tag revalidates,
+     * and Vary is set on every outcome, 304 and uncached 200 included, so shared caches key on the encoding.
+     */
+    private static boolean notModified(WebRequest request, HttpServletRequest servletRequest,
+                                       HttpServletResponse response, ContentVersions.Version version) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String ifNoneMatch = servletRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        String gzipTag = gzipEtag(version);
+        if (ifNoneMatch != null && ifNoneMatch.contains(gzipTag)) {
+            return request.checkNotModified(gzipTag, version.getLastModified());
+        }
+        return notModified(request, version);
+    }
+
+    /**
+     * Answers 304 when the client's If-None-Match (or If-Modified-Since) still matches the version,
+     * before anything is read or serialized; otherwise sets ETag and Last-Modified on the response.
+     * A null return from the handler then tells Spring the response is complete.
+     */
+    private static boolean notModified(WebRequest request, ContentVersions.Version version) {
+        return request.checkNotModified(version.getEtag(), version.getLastModified());
+    }
 }
@@ -0,0 +1,42 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.model.dto.SearchHit;
+import com.contoso.socialapp.model.dto.SearchPage;
+import com.contoso.socialapp.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@RequestMapping("/api")
+public class SearchController {
+    static final int DEFAULT_LIMIT = 20;
+
+    private final SearchService searchService;
+
+    @Autowired
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<SearchHit>> search(@RequestParam(value = "q", required = false) String q,
+                                                  @RequestParam(value = "limit", required = false) Integer limit,
+                                                  @RequestParam(value = "cursor", required = false) String cursor) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > PostController.MAX_PAGE_SIZE) {
+            throw new com.contoso.socialapp.exception.BadRequestException("limit must be between 1 and " + PostController.MAX_PAGE_SIZE);
+        }
+        SearchPage page = searchService.search(q, pageSize, cursor);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor() != null) ok.header(PostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        return ok.body(page.getItems());
+    }
+}
@@ -0,0 +1,60 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.model.dto.PostPage;
+import com.contoso.socialapp.model.dto.TrendingTag;
+import com.contoso.socialapp.service.PostService;
+import com.contoso.socialapp.service.TrendingTags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tags")
+public class TagController {
+    static final int DEFAULT_LIMIT = 20;
+    static final int DEFAULT_TRENDING_LIMIT = 10;
+
+    private final PostService postService;
+    private final TrendingTags trending;
+
+    @Autowired
+    public TagController(PostService postService, TrendingTags trending) {
+        this.postService = postService;
+        this.trending = trending;
+    }
+
+    @GetMapping("/{tag}/posts")
+    public ResponseEntity<List<PostDTO>> postsByTag(@PathVariable String tag,
+                                                    @RequestParam(value = "limit", required = false) Integer limit,
+                                                    @RequestParam(value = "cursor", required = false) String cursor) {
+        int pageSize = checkLimit(limit, DEFAULT_LIMIT);
+        PostPage page = postService.listPostsByTag(tag, pageSize, cursor);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor() != null) ok.header(PostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        return ok.body(page.getItems());
+    }
+
+    @GetMapping("/trending")
+    public List<TrendingTag> trending(@RequestParam(value = "window", defaultValue = "1h") String window,
+                                      @RequestParam(value = "limit", required = false) Integer limit) {
+        int size = checkLimit(limit, DEFAULT_TRENDING_LIMIT);
+        if ("1h".equals(window)) return trending.top(false, size);
+        if ("24h".equals(window)) return trending.top(true, size);
+        throw new com.contoso.socialapp.exception.BadRequestException("window must be '1h' or '24h'");
+    }
+
+    private static int checkLimit(Integer limit, int defaultLimit) {
+        int size = limit == null ? defaultLimit : limit;
+        if (size < 1 || size > PostController.MAX_PAGE_SIZE) {
+            throw new com.contoso.socialapp.exception.BadRequestException("limit must be between 1 and " + PostController.MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,61 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.model.dto.CommentDTO;
+import com.contoso.socialapp.model.dto.CommentPage;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.model.dto.PostPage;
+import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.PostService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// There is no users table: a username with no content simply has empty timelines
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+    static final int DEFAULT_LIMIT = 20;
+
+    private final PostService postService;
+    private final CommentService commentService;
+
+    @Autowired
+    public UserController(PostService postService, CommentService commentService) {
+        this.postService = postService;
+        this.commentService = commentService;
+    }
+
+    @GetMapping("/{username}/posts")
+    public ResponseEntity<List<PostDTO>> posts(@PathVariable String username,
+                                               @RequestParam(value = "limit", required = false) Integer limit,
+                                               @RequestParam(value = "cursor", required = false) String cursor) {
+        PostPage page = postService.listPostsByUser(username, checkLimit(limit), cursor);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor() != null) ok.header(PostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        return ok.body(page.getItems());
+    }
+
+    @GetMapping("/{username}/comments")
+    public ResponseEntity<List<CommentDTO>> comments(@PathVariable String username,
+                                                     @RequestParam(value = "limit", required = false) Integer limit,
+                                                     @RequestParam(value = "cursor", required = false) String cursor) {
+        CommentPage page = commentService.listCommentsByUser(username, checkLimit(limit), cursor);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor() != null) ok.header(PostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        return ok.body(page.getItems());
+    }
+
+    private static int checkLimit(Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > PostController.MAX_PAGE_SIZE) {
+            throw new com.contoso.socialapp.exception.BadRequestException("limit must be between 1 and " + PostController.MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+}
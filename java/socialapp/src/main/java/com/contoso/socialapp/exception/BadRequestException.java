@@ -0,0 +1,5 @@
+package com.contoso.socialapp.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) { super(message); }
+}
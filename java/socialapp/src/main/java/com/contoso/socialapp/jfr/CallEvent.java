@@ -0,0 +1,30 @@
+package com.contoso.socialapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Fields shared by the repository and service call events. The event's own start time and duration
+ * cover the call, and the thread is recorded, so JMC can line a call up with GC pauses and lock waits.
+ */
+@Category({"Social App", "Calls"})
+@StackTrace(false)
+abstract class CallEvent extends Event {
+    @Label("Class")
+    String className;
+
+    @Label("Method")
+    String method;
+
+    @Label("Post Id")
+    String postId;
+
+    // Size of a returned collection, rows affected by an update, 1 or 0 for an optional lookup; -1 otherwise
+    @Label("Rows")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,107 @@
+package com.contoso.socialapp.jfr;
+
+import com.contoso.socialapp.exception.BadRequestException;
+import com.contoso.socialapp.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One on-demand flight recording at a time, bounded in both length and size so a forgotten recording
+ * cannot fill the disk. The recording stops by itself after its duration; stop() dumps whatever it holds.
+ */
+@Component
+public class FlightRecordings {
+    private static final String[] APP_EVENTS = {
+            "com.contoso.socialapp.RepositoryCall",
+            "com.contoso.socialapp.ServiceCall",
+            "com.contoso.socialapp.SqlStatement"
+    };
+
+    private final long maxDurationSeconds;
+    private final long maxSizeBytes;
+
+    private Recording current;
+
+    public FlightRecordings(@Value("${app.jfr.max-duration-seconds:300}") long maxDurationSeconds,
+                            @Value("${app.jfr.max-size-bytes:104857600}") long maxSizeBytes) {
+        this.maxDurationSeconds = maxDurationSeconds;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Starts a recording with one of the JDK's settings files ("default" or the heavier "profile")
+     * and the application events enabled without a threshold. Replaces a finished recording that was never stopped.
+     */
+    public synchronized Map<String, Object> start(long seconds, String settings) {
+        if (current != null && current.getState() == RecordingState.RUNNING) {
+            throw new BadRequestException("A recording is already running");
+        }
+        if (seconds < 1 || seconds > maxDurationSeconds) {
+            throw new BadRequestException("seconds must be between 1 and " + maxDurationSeconds);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new BadRequestException("settings must be default or profile");
+        }
+        if (current != null) current.close();
+
+        Recording recording = new Recording(configuration);
+        recording.setName("socialapp");
+        recording.setToDisk(true);
+        recording.setDuration(Duration.ofSeconds(seconds));
+        recording.setMaxSize(maxSizeBytes);
+        for (String event : APP_EVENTS) recording.enable(event).withoutThreshold();
+        recording.start();
+        current = recording;
+        return status();
+    }
+
+    /**
+     * Stops the recording if it is still running and writes it to a temporary file, which the caller deletes.
+     */
+    public synchronized Path stop() throws IOException {
+        if (current == null) throw new ResourceNotFoundException("No recording has been started");
+        Recording recording = current;
+        current = null;
+        try {
+            if (recording.getState() == RecordingState.RUNNING) recording.stop();
+            Path file = Files.createTempFile("socialapp-", ".jfr");
+            recording.dump(file);
+            return file;
+        } finally {
+            recording.close();
+        }
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("state", current == null ? "NONE" : current.getState().name());
+        if (current != null) {
+            m.put("startTime", current.getStartTime() == null ? null : current.getStartTime().toString());
+            m.put("durationSeconds", current.getDuration() == null ? null : current.getDuration().toSeconds());
+            m.put("sizeBytes", current.getSize());
+            m.put("maxSizeBytes", current.getMaxSize());
+        }
+        return m;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (current != null) current.close();
+        current = null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.contoso.socialapp.jfr;
+
+import com.contoso.socialapp.repository.PostRepository;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits a {@link RepositoryCallEvent} or {@link ServiceCallEvent} around every public method of the
+ * application's repositories and services. When no recording has the events enabled, the cost is one
+ * allocation the JIT usually removes and an isEnabled() check.
+ */
+@Aspect
+@Component
+public class JfrCallAspect {
+    // Index of the post id argument for each advised method, or -1 if it has none
+    private final Map<Method, Integer> postIdArgument = new ConcurrentHashMap<>();
+
+    @Around("within(com.contoso.socialapp.repository..*) && @within(org.springframework.stereotype.Repository)")
+    public Object repositoryCall(ProceedingJoinPoint pjp) throws Throwable {
+        return record(new RepositoryCallEvent(), pjp);
+    }
+
+    @Around("within(com.contoso.socialapp.service..*) && @within(org.springframework.stereotype.Service)")
+    public Object serviceCall(ProceedingJoinPoint pjp) throws Throwable {
+        return record(new ServiceCallEvent(), pjp);
+    }
+
+    private Object record(CallEvent event, ProceedingJoinPoint pjp) throws Throwable {
+        if (!event.isEnabled()) return pjp.proceed();
+        event.begin();
+        Object result;
+        try {
+            result = pjp.proceed();
+        } catch (Throwable e) {
+            event.end();
+            if (event.shouldCommit()) {
+                describe(event, pjp);
+                event.rows = -1;
+                event.failed = true;
+                event.commit();
+            }
+            throw e;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            describe(event, pjp);
+            event.rows = rows(result);
+            event.commit();
+        }
+        return result;
+    }
+
+    private void describe(CallEvent event, ProceedingJoinPoint pjp) {
+        MethodSignature signature = (MethodSignature) pjp.getSignature();
+        event.className = signature.getDeclaringType().getSimpleName();
+        event.method = signature.getName();
+        int index = postIdArgument.computeIfAbsent(signature.getMethod(), m -> postIdIndex(signature));
+        if (index >= 0 && pjp.getArgs()[index] instanceof String id) event.postId = id;
+    }
+
+    // A parameter named postId, or id on the post classes (PostService and every PostRepository engine)
+    // where the post is the subject of every method
+    private static int postIdIndex(MethodSignature signature) {
+        String[] names = signature.getParameterNames();
+        if (names == null) return -1;
+        Class<?> type = signature.getDeclaringType();
+        boolean postClass = type.getSimpleName().startsWith("Post") || PostRepository.class.isAssignableFrom(type);
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals("postId") || (postClass && names[i].equals("id"))) return i;
+        }
+        return -1;
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> c) return c.size();
+        if (result instanceof Optional<?> o) return o.isPresent() ? 1 : 0;
+        if (result instanceof Integer n) return n;
+        if (result instanceof int[] counts) {
+            long sum = 0;
+            for (int n : counts) sum += Math.max(0, n);
+            return sum;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,11 @@
+package com.contoso.socialapp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.contoso.socialapp.RepositoryCall")
+@Label("Repository Call")
+@Description("A call into a @Repository bean, including connection wait and every statement it ran")
+class RepositoryCallEvent extends CallEvent {
+}
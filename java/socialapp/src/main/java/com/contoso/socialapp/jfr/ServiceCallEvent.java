@@ -0,0 +1,11 @@
+package com.contoso.socialapp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.contoso.socialapp.ServiceCall")
+@Label("Service Call")
+@Description("A call into a @Service bean, including its transaction and cache lookups")
+class ServiceCallEvent extends CallEvent {
+}
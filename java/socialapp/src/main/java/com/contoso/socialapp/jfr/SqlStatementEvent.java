@@ -0,0 +1,27 @@
+package com.contoso.socialapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One SQLite statement as seen by {@code TracingDataSource}, from execute until its result set is closed.
+ */
+@Name("com.contoso.socialapp.SqlStatement")
+@Label("SQL Statement")
+@Description("Execution of one SQL statement against SQLite")
+@Category({"Social App", "SQL"})
+@StackTrace(false)
+public class SqlStatementEvent extends Event {
+    @Label("Fingerprint")
+    public String fingerprint;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Failed")
+    public boolean failed;
+}
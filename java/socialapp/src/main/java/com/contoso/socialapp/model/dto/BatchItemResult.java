@@ -0,0 +1,36 @@
+package com.contoso.socialapp.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of one item of a batch request, reported at the item's position in the request array.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult<T> {
+    private final int index;
+    private final int status;
+    private final T item;
+    private final List<String> errors;
+
+    private BatchItemResult(int index, int status, T item, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.item = item;
+        this.errors = errors;
+    }
+
+    public static <T> BatchItemResult<T> created(int index, T item) {
+        return new BatchItemResult<>(index, 201, item, null);
+    }
+
+    public static <T> BatchItemResult<T> invalid(int index, List<String> errors) {
+        return new BatchItemResult<>(index, 400, null, errors);
+    }
+
+    public int getIndex() { return index; }
+    public int getStatus() { return status; }
+    public T getItem() { return item; }
+    public List<String> getErrors() { return errors; }
+}
@@ -0,0 +1,18 @@
+package com.contoso.socialapp.model.dto;
+
+import java.util.List;
+
+public class CommentPage {
+    private final List<CommentDTO> items;
+    private final String nextCursor;
+
+    public CommentPage(List<CommentDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CommentDTO> getItems() { return items; }
+
+    // Opaque cursor for the following page, or null when this is the last page
+    public String getNextCursor() { return nextCursor; }
+}
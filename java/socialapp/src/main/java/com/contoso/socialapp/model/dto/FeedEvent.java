@@ -0,0 +1,25 @@
+package com.contoso.socialapp.model.dto;
+
+/**
+ * One change pushed to live subscribers. {@code type} is one of post.created, post.updated, post.deleted,
+ * post.likes, comment.created, comment.updated or comment.deleted; {@code data} is the changed resource
+ * or, for deletes and like counts, a small map identifying it.
+ */
+public class FeedEvent {
+    private final long id;
+    private final String type;
+    private final String postId;
+    private final Object data;
+
+    public FeedEvent(long id, String type, String postId, Object data) {
+        this.id = id;
+        this.type = type;
+        this.postId = postId;
+        this.data = data;
+    }
+
+    public long getId() { return id; }
+    public String getType() { return type; }
+    public String getPostId() { return postId; }
+    public Object getData() { return data; }
+}
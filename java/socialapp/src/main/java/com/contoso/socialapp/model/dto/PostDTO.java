@@ -19,6 +19,13 @@ public class PostDTO {
     @JsonProperty("commentsCount")
     private int commentsCount;
 
+    @JsonProperty("viewsCount")
+    private long viewsCount;
+
+    // HyperLogLog estimate, within a few percent
+    @JsonProperty("uniqueViewers")
+    private long uniqueViewers;
+
     public PostDTO() {}
 
     public String getId() { return id; }
@@ -41,4 +48,10 @@ public class PostDTO {
 
     public int getCommentsCount() { return commentsCount; }
     public void setCommentsCount(int commentsCount) { this.commentsCount = commentsCount; }
+
+    public long getViewsCount() { return viewsCount; }
+    public void setViewsCount(long viewsCount) { this.viewsCount = viewsCount; }
+
+    public long getUniqueViewers() { return uniqueViewers; }
+    public void setUniqueViewers(long uniqueViewers) { this.uniqueViewers = uniqueViewers; }
 }
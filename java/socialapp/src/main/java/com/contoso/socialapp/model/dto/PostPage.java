@@ -0,0 +1,18 @@
+package com.contoso.socialapp.model.dto;
+
+import java.util.List;
+
+public class PostPage {
+    private final List<PostDTO> items;
+    private final String nextCursor;
+
+    public PostPage(List<PostDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PostDTO> getItems() { return items; }
+
+    // Opaque cursor for the following page, or null when this is the last page
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,36 @@
+package com.contoso.socialapp.model.dto;
+
+/**
+ * One search match: a post or a comment, with an HTML-escaped snippet whose matched terms are wrapped in
+ * {@code <mark>}. Lower scores are better matches (SQLite's BM25 is negative).
+ */
+public class SearchHit {
+    private String type;
+    private String id;
+    private String postId;
+    private String username;
+    private String createdAt;
+    private String snippet;
+    private double score;
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getPostId() { return postId; }
+    public void setPostId(String postId) { this.postId = postId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getCreatedAt() { return createdAt; }
+    public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
+
+    public String getSnippet() { return snippet; }
+    public void setSnippet(String snippet) { this.snippet = snippet; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+}
@@ -0,0 +1,18 @@
+package com.contoso.socialapp.model.dto;
+
+import java.util.List;
+
+public class SearchPage {
+    private final List<SearchHit> items;
+    private final String nextCursor;
+
+    public SearchPage(List<SearchHit> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<SearchHit> getItems() { return items; }
+
+    // Opaque cursor for the following page, or null when this is the last page
+    public String getNextCursor() { return nextCursor; }
+}
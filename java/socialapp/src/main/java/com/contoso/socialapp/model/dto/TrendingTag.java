@@ -0,0 +1,16 @@
+package com.contoso.socialapp.model.dto;
+
+public class TrendingTag {
+    private final String tag;
+    private final long count;
+
+    public TrendingTag(String tag, long count) {
+        this.tag = tag;
+        this.count = count;
+    }
+
+    public String getTag() { return tag; }
+
+    // Uses of the tag in posts and comments within the requested window
+    public long getCount() { return count; }
+}
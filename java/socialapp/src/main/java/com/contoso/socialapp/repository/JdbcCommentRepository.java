@@ -0,0 +1,116 @@
+package com.contoso.socialapp.repository;
+
+import com.contoso.socialapp.model.dto.CommentDTO;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+@Repository
+@Timed(value = "socialapp.repository", histogram = true)
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@DependsOn("databaseInitializer")
+public class JdbcCommentRepository implements CommentRepository {
+    // Per-user comment pages, keyset over idx_comments_username_created_at; public so tests can EXPLAIN them
+    public static final String PAGE_BY_USER_SQL =
+            "SELECT * FROM comments WHERE username = ? ORDER BY created_at DESC, id DESC LIMIT ?";
+    public static final String PAGE_BY_USER_AFTER_SQL =
+            "SELECT * FROM comments WHERE username = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate readJdbc;
+
+    private static final RowMapper<CommentDTO> COMMENT_ROW_MAPPER = new RowMapper<CommentDTO>() {
+        @Override
+        public CommentDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+            CommentDTO c = new CommentDTO();
+            c.setId(rs.getString("id"));
+            c.setPostId(rs.getString("post_id"));
+            c.setUsername(rs.getString("username"));
+            c.setContent(rs.getString("content"));
+            c.setCreatedAt(rs.getString("created_at"));
+            c.setUpdatedAt(rs.getString("updated_at"));
+            return c;
+        }
+    };
+
+    @Autowired
+    public JdbcCommentRepository(JdbcTemplate jdbc, @Qualifier("readJdbcTemplate") JdbcTemplate readJdbc) {
+        this.jdbc = jdbc;
+        this.readJdbc = readJdbc;
+    }
+
+    private JdbcTemplate reader() {
+        return ReadRouting.choose(jdbc, readJdbc);
+    }
+
+    @Override
+    public void insertComment(String id, String postId, String username, String content, String createdAt, String updatedAt) {
+        jdbc.update("INSERT INTO comments (id, post_id, username, content, created_at, updated_at, likes) VALUES (?,?,?,?,?,?,?)",
+                id, postId, username, content, createdAt, updatedAt, 0);
+    }
+
+    @Override
+    public void insertComments(List<Object[]> rows) {
+        jdbc.batchUpdate("INSERT INTO comments (id, post_id, username, content, created_at, updated_at, likes) VALUES (?,?,?,?,?,?,0)", rows);
+    }
+
+    @Override
+    public List<CommentDTO> findByPostId(String postId) {
+        return reader().query("SELECT * FROM comments WHERE post_id = ?", COMMENT_ROW_MAPPER, postId);
+    }
+
+    @Override
+    public List<CommentDTO> findPageByUser(String username, String afterCreatedAt, String afterId, int limit) {
+        if (afterCreatedAt == null) {
+            return reader().query(PAGE_BY_USER_SQL, COMMENT_ROW_MAPPER, username, limit);
+        }
+        return reader().query(PAGE_BY_USER_AFTER_SQL, COMMENT_ROW_MAPPER, username, afterCreatedAt, afterId, limit);
+    }
+
+    @Override
+    public Optional<CommentDTO> findByPostAndId(String postId, String commentId) {
+        SqlRowSet rs = reader().queryForRowSet("SELECT * FROM comments WHERE id = ?", commentId);
+        if (rs.next() && rs.getString("post_id").equals(postId)) {
+            CommentDTO c = new CommentDTO();
+            c.setId(rs.getString("id"));
+            c.setPostId(rs.getString("post_id"));
+            c.setUsername(rs.getString("username"));
+            c.setContent(rs.getString("content"));
+            c.setCreatedAt(rs.getString("created_at"));
+            c.setUpdatedAt(rs.getString("updated_at"));
+            return Optional.of(c);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void updateCommentContent(String commentId, String content, String updatedAt) {
+        jdbc.update("UPDATE comments SET content = ?, updated_at = ? WHERE id = ?", content, updatedAt, commentId);
+    }
+
+    @Override
+    public void deleteComment(String commentId) {
+        jdbc.update("DELETE FROM comments WHERE id = ?", commentId);
+    }
+
+    @Override
+    public int countByPostId(String postId) {
+        Integer count = reader().queryForObject("SELECT COUNT(*) FROM comments WHERE post_id = ?", Integer.class, postId);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public void deleteByPostId(String postId) {
+        jdbc.update("DELETE FROM comments WHERE post_id = ?", postId);
+    }
+}
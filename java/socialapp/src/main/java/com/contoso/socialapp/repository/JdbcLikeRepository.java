@@ -0,0 +1,85 @@
+package com.contoso.socialapp.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@Timed(value = "socialapp.repository", histogram = true)
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@DependsOn("databaseInitializer")
+public class JdbcLikeRepository implements LikeRepository {
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate readJdbc;
+
+    @Autowired
+    public JdbcLikeRepository(JdbcTemplate jdbc, @Qualifier("readJdbcTemplate") JdbcTemplate readJdbc) {
+        this.jdbc = jdbc;
+        this.readJdbc = readJdbc;
+    }
+
+    private JdbcTemplate reader() {
+        return ReadRouting.choose(jdbc, readJdbc);
+    }
+
+    @Override
+    public boolean exists(String likeId) {
+        SqlRowSet rs = reader().queryForRowSet("SELECT like_id FROM likes WHERE like_id = ?", likeId);
+        return rs.next();
+    }
+
+    @Override
+    public void insertLike(String likeId, String postId, String username) {
+        jdbc.update("INSERT INTO likes (like_id, post_id, username) VALUES (?,?,?)", likeId, postId, username);
+    }
+
+    // INSERT OR IGNORE against idx_likes_post_id_username; the EXISTS keeps likes of missing posts out
+    @Override
+    public int insertLikeIfAbsent(String likeId, String postId, String username) {
+        return jdbc.update("INSERT OR IGNORE INTO likes (like_id, post_id, username) "
+                + "SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM posts WHERE id = ?)", likeId, postId, username, postId);
+    }
+
+    @Override
+    public int[] insertLikesIfAbsent(List<Object[]> rows) {
+        return jdbc.batchUpdate("INSERT OR IGNORE INTO likes (like_id, post_id, username) "
+                + "SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM posts WHERE id = ?)", rows);
+    }
+
+    @Override
+    public int[] deleteLikes(List<Object[]> rows) {
+        return jdbc.batchUpdate("DELETE FROM likes WHERE post_id = ? AND username = ?", rows);
+    }
+
+    @Override
+    public void deleteLike(String likeId) {
+        jdbc.update("DELETE FROM likes WHERE like_id = ?", likeId);
+    }
+
+    @Override
+    public int deleteLike(String postId, String username) {
+        return jdbc.update("DELETE FROM likes WHERE post_id = ? AND username = ?", postId, username);
+    }
+
+    @Override
+    public List<String> findUsernamesByPostId(String postId) {
+        List<String> list = new ArrayList<>();
+        reader().query("SELECT username FROM likes WHERE post_id = ?", new Object[]{postId}, (rs) -> {
+            list.add(rs.getString("username"));
+        });
+        return list;
+    }
+
+    @Override
+    public void deleteByPostId(String postId) {
+        jdbc.update("DELETE FROM likes WHERE post_id = ?", postId);
+    }
+}
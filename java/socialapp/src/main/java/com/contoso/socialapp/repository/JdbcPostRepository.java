@@ -0,0 +1,179 @@
+package com.contoso.socialapp.repository;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+@Repository
+@Timed(value = "socialapp.repository", histogram = true)
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@DependsOn("databaseInitializer")
+public class JdbcPostRepository implements PostRepository {
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate readJdbc;
+
+    private static final RowMapper<PostDTO> POST_ROW_MAPPER = new RowMapper<PostDTO>() {
+        @Override
+        public PostDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+            PostDTO p = new PostDTO();
+            p.setId(rs.getString("id"));
+            p.setUsername(rs.getString("username"));
+            p.setContent(rs.getString("content"));
+            p.setCreatedAt(rs.getString("created_at"));
+            p.setUpdatedAt(rs.getString("updated_at"));
+            p.setLikesCount(rs.getInt("likes"));
+            p.setCommentsCount(rs.getInt("comments_count"));
+            p.setViewsCount(rs.getLong("views"));
+            p.setUniqueViewers(rs.getLong("unique_viewers"));
+            return p;
+        }
+    };
+
+    // Comment counts are resolved in the same statement through idx_comments_post_id_created_at,
+    // so reading N posts costs one round trip instead of N+1
+    private static final String SELECT_POST_WITH_COUNTS = "SELECT p.id, p.username, p.content, p.created_at, p.updated_at, p.likes, p.views, p.unique_viewers, "
+            + "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id) AS comments_count FROM posts p ";
+
+    // Per-user timeline pages, keyset over idx_posts_username_created_at; public so tests can EXPLAIN them
+    public static final String PAGE_BY_USER_SQL = SELECT_POST_WITH_COUNTS
+            + "WHERE p.username = ? ORDER BY p.created_at DESC, p.id DESC LIMIT ?";
+    public static final String PAGE_BY_USER_AFTER_SQL = SELECT_POST_WITH_COUNTS
+            + "WHERE p.username = ? AND (p.created_at, p.id) < (?, ?) ORDER BY p.created_at DESC, p.id DESC LIMIT ?";
+
+    private static final int ID_CHUNK_SIZE = 500;
+
+    @Autowired
+    public JdbcPostRepository(JdbcTemplate jdbc, @Qualifier("readJdbcTemplate") JdbcTemplate readJdbc) {
+        this.jdbc = jdbc;
+        this.readJdbc = readJdbc;
+    }
+
+    private JdbcTemplate reader() {
+        return ReadRouting.choose(jdbc, readJdbc);
+    }
+
+    @Override
+    public void insertPost(String id, String username, String content, String createdAt, String updatedAt) {
+        jdbc.update("INSERT INTO posts (id, username, content, created_at, updated_at, likes, likes_by) VALUES (?,?,?,?,?,?,?)",
+                id, username, content, createdAt, updatedAt, 0, "[]");
+    }
+
+    @Override
+    public void insertPosts(List<Object[]> rows) {
+        jdbc.batchUpdate("INSERT INTO posts (id, username, content, created_at, updated_at, likes, likes_by) VALUES (?,?,?,?,?,0,'[]')", rows);
+    }
+
+    @Override
+    public List<PostDTO> findAll() {
+        return reader().query(SELECT_POST_WITH_COUNTS + "ORDER BY p.created_at DESC, p.id DESC", POST_ROW_MAPPER);
+    }
+
+    // Keyset page over idx_posts_created_at_id
+    @Override
+    public List<PostDTO> findPage(String afterCreatedAt, String afterId, int limit) {
+        if (afterCreatedAt == null) {
+            return reader().query(SELECT_POST_WITH_COUNTS + "ORDER BY p.created_at DESC, p.id DESC LIMIT ?", POST_ROW_MAPPER, limit);
+        }
+        return reader().query(SELECT_POST_WITH_COUNTS + "WHERE (p.created_at, p.id) < (?, ?) "
+                        + "ORDER BY p.created_at DESC, p.id DESC LIMIT ?",
+                POST_ROW_MAPPER, afterCreatedAt, afterId, limit);
+    }
+
+    // Keyset page over idx_post_tags_tag_created_at. The tag index drives the join,
+    // so the cost depends on the page size rather than on how many posts exist.
+    @Override
+    public List<PostDTO> findPageByTag(String tag, String afterCreatedAt, String afterId, int limit) {
+        String join = "JOIN post_tags t ON t.post_id = p.id WHERE t.tag = ? ";
+        if (afterCreatedAt == null) {
+            return reader().query(SELECT_POST_WITH_COUNTS + join + "ORDER BY t.created_at DESC, t.post_id DESC LIMIT ?",
+                    POST_ROW_MAPPER, tag, limit);
+        }
+        return reader().query(SELECT_POST_WITH_COUNTS + join + "AND (t.created_at, t.post_id) < (?, ?) "
+                        + "ORDER BY t.created_at DESC, t.post_id DESC LIMIT ?",
+                POST_ROW_MAPPER, tag, afterCreatedAt, afterId, limit);
+    }
+
+    @Override
+    public List<PostDTO> findPageByUser(String username, String afterCreatedAt, String afterId, int limit) {
+        if (afterCreatedAt == null) {
+            return reader().query(PAGE_BY_USER_SQL, POST_ROW_MAPPER, username, limit);
+        }
+        return reader().query(PAGE_BY_USER_AFTER_SQL, POST_ROW_MAPPER, username, afterCreatedAt, afterId, limit);
+    }
+
+    // Chunked to stay under SQLite's bound-parameter limit
+    @Override
+    public List<PostDTO> findByIds(Collection<? extends String> ids) {
+        List<String> all = new ArrayList<>(ids);
+        List<PostDTO> result = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += ID_CHUNK_SIZE) {
+            List<String> chunk = all.subList(from, Math.min(from + ID_CHUNK_SIZE, all.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            result.addAll(reader().query(SELECT_POST_WITH_COUNTS + "WHERE p.id IN (" + placeholders + ")",
+                    POST_ROW_MAPPER, chunk.toArray()));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<PostDTO> findById(String id) {
+        List<PostDTO> list = reader().query(SELECT_POST_WITH_COUNTS + "WHERE p.id = ?", POST_ROW_MAPPER, id);
+        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findPostRow(String id) {
+        SqlRowSet rs = reader().queryForRowSet("SELECT * FROM posts WHERE id = ?", id);
+        if (rs.next()) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("id", rs.getString("id"));
+            m.put("username", rs.getString("username"));
+            m.put("content", rs.getString("content"));
+            m.put("created_at", rs.getString("created_at"));
+            m.put("updated_at", rs.getString("updated_at"));
+            m.put("likes", rs.getInt("likes"));
+            return Optional.of(m);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void updatePostContent(String id, String content, String updatedAt) {
+        jdbc.update("UPDATE posts SET content = ?, updated_at = ? WHERE id = ?", content, updatedAt, id);
+    }
+
+    @Override
+    public void deletePost(String id) {
+        jdbc.update("DELETE FROM posts WHERE id = ?", id);
+    }
+
+    @Override
+    public boolean exists(String id) {
+        SqlRowSet rs = reader().queryForRowSet("SELECT 1 FROM posts WHERE id = ?", id);
+        return rs.next();
+    }
+
+    // Atomic in-place counter update; avoids the read-modify-write race of rewriting the whole row
+    @Override
+    public void adjustLikes(String postId, int delta) {
+        jdbc.update("UPDATE posts SET likes = likes + ? WHERE id = ?", delta, postId);
+    }
+
+    @Override
+    public void adjustLikes(Map<String, Integer> deltasByPostId) {
+        List<Object[]> rows = new ArrayList<>(deltasByPostId.size());
+        deltasByPostId.forEach((postId, delta) -> rows.add(new Object[]{delta, postId}));
+        jdbc.batchUpdate("UPDATE posts SET likes = likes + ? WHERE id = ?", rows);
+    }
+}
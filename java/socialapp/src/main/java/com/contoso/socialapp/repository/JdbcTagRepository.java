@@ -0,0 +1,80 @@
+package com.contoso.socialapp.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains the post_tags inverted index and the trending_buckets checkpoint. Tag pages themselves
+ * are read through {@link PostRepository#findPageByTag} so they share the post row mapping.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@DependsOn("databaseInitializer")
+public class JdbcTagRepository implements TagRepository {
+    private final JdbcTemplate jdbc;
+
+    // The post's created_at is copied in from posts so the index can be walked in feed order
+    private static final String ADD_REF = "INSERT INTO post_tags (tag, post_id, created_at, refs) "
+            + "SELECT ?, id, created_at, 1 FROM posts WHERE id = ? "
+            + "ON CONFLICT (tag, post_id) DO UPDATE SET refs = refs + 1";
+
+    @Autowired
+    public JdbcTagRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void addRefs(String postId, Collection<String> tags) {
+        if (tags.isEmpty()) return;
+        List<Object[]> rows = new ArrayList<>(tags.size());
+        for (String tag : tags) rows.add(new Object[]{tag, postId});
+        addRefs(rows);
+    }
+
+    @Override
+    public void addRefs(List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate(ADD_REF, rows);
+    }
+
+    @Override
+    public void removeRefs(String postId, Collection<String> tags) {
+        if (tags.isEmpty()) return;
+        List<Object[]> rows = new ArrayList<>(tags.size());
+        for (String tag : tags) rows.add(new Object[]{tag, postId});
+        jdbc.batchUpdate("UPDATE post_tags SET refs = refs - 1 WHERE tag = ? AND post_id = ?", rows);
+        jdbc.update("DELETE FROM post_tags WHERE post_id = ? AND refs <= 0", postId);
+    }
+
+    @Override
+    public void deleteByPostId(String postId) {
+        jdbc.update("DELETE FROM post_tags WHERE post_id = ?", postId);
+    }
+
+    @Override
+    public void replaceBuckets(List<Object[]> buckets, List<Object[]> rows) {
+        jdbc.batchUpdate("DELETE FROM trending_buckets WHERE granularity = ? AND bucket_start = ?", buckets);
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO trending_buckets (granularity, bucket_start, tag, count) VALUES (?,?,?,?)", rows);
+        }
+    }
+
+    @Override
+    public void deleteBucketsBefore(String granularity, long bucketStart) {
+        jdbc.update("DELETE FROM trending_buckets WHERE granularity = ? AND bucket_start < ?", granularity, bucketStart);
+    }
+
+    @Override
+    public void loadBuckets(String granularity, long fromBucketStart, RowCallbackHandler handler) {
+        jdbc.query("SELECT bucket_start, tag, count FROM trending_buckets WHERE granularity = ? AND bucket_start >= ? "
+                + "ORDER BY bucket_start", handler, granularity, fromBucketStart);
+    }
+}
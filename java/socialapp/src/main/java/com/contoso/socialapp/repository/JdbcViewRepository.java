@@ -0,0 +1,89 @@
+package com.contoso.socialapp.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes for ViewCounter: view totals and unique-viewer estimates live on posts, the HyperLogLog
+ * registers behind the estimate in post_view_sketches.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@DependsOn("databaseInitializer")
+public class JdbcViewRepository implements ViewRepository {
+    private static final int ID_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbc;
+
+    @Autowired
+    public JdbcViewRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void addViews(List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate("UPDATE posts SET views = views + ? WHERE id = ?", rows);
+    }
+
+    @Override
+    public void saveSketches(List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        List<Object[]> sketches = new ArrayList<>(rows.size());
+        List<Object[]> estimates = new ArrayList<>(rows.size());
+        for (Object[] r : rows) {
+            sketches.add(new Object[]{r[0], r[2]});
+            estimates.add(new Object[]{r[1], r[2]});
+        }
+        jdbc.batchUpdate("INSERT INTO post_view_sketches (post_id, registers) SELECT id, ? FROM posts WHERE id = ? "
+                + "ON CONFLICT (post_id) DO UPDATE SET registers = excluded.registers", sketches);
+        jdbc.batchUpdate("UPDATE posts SET unique_viewers = ? WHERE id = ?", estimates);
+    }
+
+    @Override
+    public Map<String, byte[]> findSketches(Collection<String> postIds) {
+        if (postIds.isEmpty()) return Collections.emptyMap();
+        List<String> all = new ArrayList<>(postIds);
+        Map<String, byte[]> result = new HashMap<>();
+        for (int from = 0; from < all.size(); from += ID_CHUNK_SIZE) {
+            List<String> chunk = all.subList(from, Math.min(from + ID_CHUNK_SIZE, all.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbc.query("SELECT post_id, registers FROM post_view_sketches WHERE post_id IN (" + placeholders + ")",
+                    rs -> {
+                        result.put(rs.getString("post_id"), rs.getBytes("registers"));
+                    }, chunk.toArray());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, long[]> findCounts(Collection<String> postIds) {
+        if (postIds.isEmpty()) return Collections.emptyMap();
+        List<String> all = new ArrayList<>(postIds);
+        Map<String, long[]> result = new HashMap<>();
+        for (int from = 0; from < all.size(); from += ID_CHUNK_SIZE) {
+            List<String> chunk = all.subList(from, Math.min(from + ID_CHUNK_SIZE, all.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbc.query("SELECT id, views, unique_viewers FROM posts WHERE id IN (" + placeholders + ")",
+                    rs -> {
+                        result.put(rs.getString("id"), new long[]{rs.getLong("views"), rs.getLong("unique_viewers")});
+                    }, chunk.toArray());
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteByPostId(String postId) {
+        jdbc.update("DELETE FROM post_view_sketches WHERE post_id = ?", postId);
+    }
+}
@@ -1,44 +1,33 @@
 package com.contoso.socialapp.repository;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
-import org.springframework.stereotype.Repository;
-
-import java.util.ArrayList;
 import java.util.List;
 
-@Repository
-public class LikeRepository {
-    private final JdbcTemplate jdbc;
-
-    @Autowired
-    public LikeRepository(JdbcTemplate jdbc) {
-        this.jdbc = jdbc;
-    }
-
-    public boolean exists(String likeId) {
-        SqlRowSet rs = jdbc.queryForRowSet("SELECT like_id FROM likes WHERE like_id = ?", likeId);
-        return rs.next();
-    }
-
-    public void insertLike(String likeId, String postId, String username) {
-        jdbc.update("INSERT INTO likes (like_id, post_id, username) VALUES (?,?,?)", likeId, postId, username);
-    }
-
-    public void deleteLike(String likeId) {
-        jdbc.update("DELETE FROM likes WHERE like_id = ?", likeId);
-    }
-
-    public List<String> findUsernamesByPostId(String postId) {
-        List<String> list = new ArrayList<>();
-        jdbc.query("SELECT username FROM likes WHERE post_id = ?", new Object[]{postId}, (rs) -> {
-            list.add(rs.getString("username"));
-        });
-        return list;
-    }
-
-    public void deleteByPostId(String postId) {
-        jdbc.update("DELETE FROM likes WHERE post_id = ?", postId);
-    }
+/**
+ * Like storage. A user likes a post at most once; the post's like count is kept in step through
+ * {@link PostRepository#adjustLikes}.
+ */
+public interface LikeRepository {
+
+    boolean exists(String likeId);
+
+    void insertLike(String likeId, String postId, String username);
+
+    // Idempotent insert; returns 1 only when a new like was recorded for an existing post,
+    // 0 when the user already liked it or the post does not exist
+    int insertLikeIfAbsent(String likeId, String postId, String username);
+
+    // Batched form of insertLikeIfAbsent; each row is {likeId, postId, username, postId} and the result
+    // holds 1 for every like that was actually inserted
+    int[] insertLikesIfAbsent(List<Object[]> rows);
+
+    // Each row is {postId, username}; the result holds 1 for every like that was actually removed
+    int[] deleteLikes(List<Object[]> rows);
+
+    void deleteLike(String likeId);
+
+    int deleteLike(String postId, String username);
+
+    List<String> findUsernamesByPostId(String postId);
+
+    void deleteByPostId(String postId);
 }
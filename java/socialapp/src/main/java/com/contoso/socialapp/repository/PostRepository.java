@@ -1,86 +1,52 @@
 package com.contoso.socialapp.repository;
 
 import com.contoso.socialapp.model.dto.PostDTO;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
-import org.springframework.stereotype.Repository;
-
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.time.Instant;
-import java.util.*;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-@Repository
-public class PostRepository {
-    private final JdbcTemplate jdbc;
-    private final ObjectMapper objectMapper;
-
-    @Autowired
-    public PostRepository(JdbcTemplate jdbc, ObjectMapper objectMapper) {
-        this.jdbc = jdbc;
-        this.objectMapper = objectMapper;
-    }
-
-    public void insertPost(String id, String username, String content, String createdAt, String updatedAt) {
-        jdbc.update("INSERT INTO posts (id, username, content, created_at, updated_at, likes, likes_by) VALUES (?,?,?,?,?,?,?)",
-                id, username, content, createdAt, updatedAt, 0, "[]");
-    }
-
-    public List<PostDTO> findAll() {
-        List<PostDTO> list = jdbc.query("SELECT * FROM posts", new RowMapper<PostDTO>() {
-            @Override
-            public PostDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
-                PostDTO p = new PostDTO();
-                p.setId(rs.getString("id"));
-                p.setUsername(rs.getString("username"));
-                p.setContent(rs.getString("content"));
-                p.setCreatedAt(rs.getString("created_at"));
-                p.setUpdatedAt(rs.getString("updated_at"));
-                p.setLikesCount(rs.getInt("likes"));
-                // commentsCount computed separately
-                p.setCommentsCount(0);
-                return p;
-            }
-        });
-        // sort by createdAt desc
-        list.sort(Comparator.comparing(PostDTO::getCreatedAt).reversed());
-        return list;
-    }
-
-    public Optional<Map<String, Object>> findPostRow(String id) {
-        SqlRowSet rs = jdbc.queryForRowSet("SELECT * FROM posts WHERE id = ?", id);
-        if (rs.next()) {
-            Map<String, Object> m = new HashMap<>();
-            m.put("id", rs.getString("id"));
-            m.put("username", rs.getString("username"));
-            m.put("content", rs.getString("content"));
-            m.put("created_at", rs.getString("created_at"));
-            m.put("updated_at", rs.getString("updated_at"));
-            m.put("likes", rs.getInt("likes"));
-            m.put("likes_by", rs.getString("likes_by"));
-            return Optional.of(m);
-        }
-        return Optional.empty();
-    }
-
-    public void updatePostContent(String id, String content, String updatedAt) {
-        jdbc.update("UPDATE posts SET content = ?, updated_at = ? WHERE id = ?", content, updatedAt, id);
-    }
-
-    public void deletePost(String id) {
-        jdbc.update("DELETE FROM posts WHERE id = ?", id);
-    }
-
-    public void setLikesByAndCount(String postId, List<String> likesBy) {
-        try {
-            String json = objectMapper.writeValueAsString(likesBy);
-            jdbc.update("UPDATE posts SET likes = ?, likes_by = ? WHERE id = ?", likesBy.size(), json, postId);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Post storage. Posts are returned with their like, comment and view counts filled in, and pages are
+ * ordered newest first by (createdAt, id). The engine is chosen with app.storage.engine: SQLite through
+ * {@link JdbcPostRepository}, or the in-memory store in the memory subpackage.
+ */
+public interface PostRepository {
+
+    void insertPost(String id, String username, String content, String createdAt, String updatedAt);
+
+    // Rows are {id, username, content, created_at, updated_at}
+    void insertPosts(List<Object[]> rows);
+
+    List<PostDTO> findAll();
+
+    // Keyset page: newest first, strictly after the (createdAt, id) cursor when given
+    List<PostDTO> findPage(String afterCreatedAt, String afterId, int limit);
+
+    // Keyset page of the posts carrying the tag in their body or a comment, newest first
+    List<PostDTO> findPageByTag(String tag, String afterCreatedAt, String afterId, int limit);
+
+    // Keyset page of the user's posts, newest first
+    List<PostDTO> findPageByUser(String username, String afterCreatedAt, String afterId, int limit);
+
+    // Order is not preserved; unknown ids are skipped
+    List<PostDTO> findByIds(Collection<? extends String> ids);
+
+    Optional<PostDTO> findById(String id);
+
+    // The stored row without counts: id, username, content, created_at, updated_at and likes
+    Optional<Map<String, Object>> findPostRow(String id);
+
+    void updatePostContent(String id, String content, String updatedAt);
+
+    // Callers also delete the post's comments, likes, tags and view sketch through their repositories;
+    // an engine that stores those with the post may already have dropped them
+    void deletePost(String id);
+
+    boolean exists(String id);
+
+    void adjustLikes(String postId, int delta);
+
+    void adjustLikes(Map<String, Integer> deltasByPostId);
 }
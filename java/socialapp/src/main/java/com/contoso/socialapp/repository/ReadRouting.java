@@ -0,0 +1,16 @@
+package com.contoso.socialapp.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Chooses the connection pool for a repository read. Reads normally go to the read-only pool,
+ * but inside a write transaction they must use the writer so they see its uncommitted rows.
+ */
+final class ReadRouting {
+    private ReadRouting() {}
+
+    static JdbcTemplate choose(JdbcTemplate writer, JdbcTemplate reader) {
+        return TransactionSynchronizationManager.isActualTransactionActive() ? writer : reader;
+    }
+}
@@ -0,0 +1,120 @@
+package com.contoso.socialapp.repository;
+
+import com.contoso.socialapp.model.dto.SearchHit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BM25-ranked full-text search over post and comment content through the FTS5 tables created by
+ * DatabaseInitializer. Matches from both tables are merged into one ranking and paged by keyset on
+ * (score, type, rowid), which is unique and stable while the data does not change. Limit is at most
+ * the page size cap, so the rowid IN lists stay far below SQLite's bound-parameter limit.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@DependsOn("databaseInitializer")
+public class SearchRepository {
+    // Control characters cannot appear in stored content, so they safely mark match boundaries until escaping
+    public static final String MATCH_START = "\u0002";
+    public static final String MATCH_END = "\u0003";
+    private static final int SNIPPET_TOKENS = 16;
+
+    // Ranks without touching the base tables or building snippets, so only the returned page pays for those
+    private static final String RANK = "SELECT * FROM ("
+            + "SELECT 'post' AS type, rowid AS rid, bm25(posts_fts) AS score FROM posts_fts WHERE posts_fts MATCH ? "
+            + "UNION ALL "
+            + "SELECT 'comment', rowid, bm25(comments_fts) FROM comments_fts WHERE comments_fts MATCH ?"
+            + ") ";
+
+    private static final String POST_DETAILS = "SELECT p.rowid AS rid, p.id AS id, p.id AS post_id, p.username, p.created_at, "
+            + "snippet(posts_fts, 0, ?, ?, '…', " + SNIPPET_TOKENS + ") AS snippet "
+            + "FROM posts_fts JOIN posts p ON p.rowid = posts_fts.rowid WHERE posts_fts MATCH ? AND posts_fts.rowid IN ";
+
+    private static final String COMMENT_DETAILS = "SELECT c.rowid AS rid, c.id AS id, c.post_id AS post_id, c.username, c.created_at, "
+            + "snippet(comments_fts, 0, ?, ?, '…', " + SNIPPET_TOKENS + ") AS snippet "
+            + "FROM comments_fts JOIN comments c ON c.rowid = comments_fts.rowid WHERE comments_fts MATCH ? AND comments_fts.rowid IN ";
+
+    private static final RowMapper<Row> RANK_MAPPER = (rs, rowNum) -> {
+        SearchHit h = new SearchHit();
+        h.setType(rs.getString("type"));
+        h.setScore(rs.getDouble("score"));
+        return new Row(h, rs.getLong("rid"));
+    };
+
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate readJdbc;
+
+    @Autowired
+    public SearchRepository(JdbcTemplate jdbc, @Qualifier("readJdbcTemplate") JdbcTemplate readJdbc) {
+        this.jdbc = jdbc;
+        this.readJdbc = readJdbc;
+    }
+
+    private JdbcTemplate reader() {
+        return ReadRouting.choose(jdbc, readJdbc);
+    }
+
+    /**
+     * Ranks all matches, then reads usernames, dates and snippets for the returned page only.
+     *
+     * @param match an FTS5 query expression, already sanitized by the caller
+     * @param after the last row of the previous page, or null for the first page
+     */
+    public List<Row> search(String match, Row after, int limit) {
+        List<Row> page = after == null
+                ? reader().query(RANK + "ORDER BY score, type, rid LIMIT ?", RANK_MAPPER, match, match, limit)
+                : reader().query(RANK + "WHERE (score, type, rid) > (?, ?, ?) ORDER BY score, type, rid LIMIT ?", RANK_MAPPER,
+                        match, match, after.hit.getScore(), after.hit.getType(), after.rowid, limit);
+        Map<Long, Row> posts = new HashMap<>();
+        Map<Long, Row> comments = new HashMap<>();
+        for (Row row : page) (row.hit.getType().equals("post") ? posts : comments).put(row.rowid, row);
+        fillDetails(POST_DETAILS, match, posts);
+        fillDetails(COMMENT_DETAILS, match, comments);
+        return page;
+    }
+
+    private void fillDetails(String sql, String match, Map<Long, Row> rows) {
+        if (rows.isEmpty()) return;
+        List<Object> args = new ArrayList<>(rows.size() + 3);
+        args.add(MATCH_START);
+        args.add(MATCH_END);
+        args.add(match);
+        args.addAll(rows.keySet());
+        String placeholders = String.join(",", Collections.nCopies(rows.size(), "?"));
+        reader().query(sql + "(" + placeholders + ")", rs -> {
+            SearchHit h = rows.get(rs.getLong("rid")).hit;
+            h.setId(rs.getString("id"));
+            h.setPostId(rs.getString("post_id"));
+            h.setUsername(rs.getString("username"));
+            h.setCreatedAt(rs.getString("created_at"));
+            h.setSnippet(rs.getString("snippet"));
+        }, args.toArray());
+    }
+
+    /**
+     * A hit plus the base-table rowid used as the final keyset tie-breaker.
+     */
+    public static final class Row {
+        private final SearchHit hit;
+        private final long rowid;
+
+        public Row(SearchHit hit, long rowid) {
+            this.hit = hit;
+            this.rowid = rowid;
+        }
+
+        public SearchHit getHit() { return hit; }
+        public long getRowid() { return rowid; }
+    }
+}
@@ -0,0 +1,30 @@
+package com.contoso.socialapp.repository;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The tag index behind tag pages and the trending_buckets checkpoint. Each (tag, post) pair counts
+ * how many sources, the post body and its comments, carry the tag; the pair is dropped when that reaches zero.
+ */
+public interface TagRepository {
+
+    void addRefs(String postId, Collection<String> tags);
+
+    // Rows are {tag, post_id}; tags of posts that do not exist are ignored
+    void addRefs(List<Object[]> rows);
+
+    void removeRefs(String postId, Collection<String> tags);
+
+    void deleteByPostId(String postId);
+
+    // Rows are {granularity, bucket_start, tag, count}; a bucket is always written whole
+    void replaceBuckets(List<Object[]> buckets, List<Object[]> rows);
+
+    void deleteBucketsBefore(String granularity, long bucketStart);
+
+    // Rows have bucket_start, tag and count columns, oldest bucket first
+    void loadBuckets(String granularity, long fromBucketStart, RowCallbackHandler handler);
+}
@@ -0,0 +1,25 @@
+package com.contoso.socialapp.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes for ViewCounter: view totals and unique-viewer estimates are stored with the post, the
+ * HyperLogLog registers behind the estimate next to it.
+ */
+public interface ViewRepository {
+
+    // Rows are {delta, post_id}
+    void addViews(List<Object[]> rows);
+
+    // Rows are {registers, unique_viewers, post_id}; posts deleted in the meantime are skipped
+    void saveSketches(List<Object[]> rows);
+
+    Map<String, byte[]> findSketches(Collection<String> postIds);
+
+    // Values are {views, unique_viewers}; missing posts are left out
+    Map<String, long[]> findCounts(Collection<String> postIds);
+
+    void deleteByPostId(String postId);
+}
@@ -0,0 +1,80 @@
+package com.contoso.socialapp.repository.memory;
+
+import com.contoso.socialapp.model.dto.CommentDTO;
+import com.contoso.socialapp.repository.CommentRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "memory")
+@Timed(value = "socialapp.repository", histogram = true)
+public class InMemoryCommentRepository implements CommentRepository {
+    private final InMemoryStore store;
+
+    @Autowired
+    public InMemoryCommentRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void insertComment(String id, String postId, String username, String content, String createdAt, String updatedAt) {
+        store.insertComment(id, postId, username, content, createdAt, updatedAt);
+    }
+
+    @Override
+    public void insertComments(List<Object[]> rows) {
+        for (Object[] r : rows) {
+            store.insertComment((String) r[0], (String) r[1], (String) r[2], (String) r[3], (String) r[4], (String) r[5]);
+        }
+    }
+
+    @Override
+    public List<CommentDTO> findByPostId(String postId) {
+        return toDtos(store.commentsOf(postId));
+    }
+
+    @Override
+    public List<CommentDTO> findPageByUser(String username, String afterCreatedAt, String afterId, int limit) {
+        return toDtos(InMemoryStore.page(store.commentsByUser.get(username), afterCreatedAt, afterId, limit));
+    }
+
+    @Override
+    public Optional<CommentDTO> findByPostAndId(String postId, String commentId) {
+        InMemoryStore.CommentRecord c = store.comments.get(commentId);
+        if (c == null || !c.postId.equals(postId)) return Optional.empty();
+        return Optional.of(InMemoryStore.toDto(c));
+    }
+
+    @Override
+    public void updateCommentContent(String commentId, String content, String updatedAt) {
+        store.updateComment(commentId, content, updatedAt);
+    }
+
+    @Override
+    public void deleteComment(String commentId) {
+        store.deleteComment(commentId);
+    }
+
+    @Override
+    public int countByPostId(String postId) {
+        InMemoryStore.PostRecord p = store.posts.get(postId);
+        return p == null ? 0 : p.commentCount;
+    }
+
+    @Override
+    public void deleteByPostId(String postId) {
+        store.deleteComments(postId);
+    }
+
+    private static List<CommentDTO> toDtos(List<InMemoryStore.CommentRecord> records) {
+        List<CommentDTO> result = new ArrayList<>(records.size());
+        for (InMemoryStore.CommentRecord c : records) result.add(InMemoryStore.toDto(c));
+        return result;
+    }
+}
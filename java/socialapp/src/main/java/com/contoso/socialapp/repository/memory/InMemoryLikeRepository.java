@@ -0,0 +1,85 @@
+package com.contoso.socialapp.repository.memory;
+
+import com.contoso.socialapp.repository.LikeRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "memory")
+@Timed(value = "socialapp.repository", histogram = true)
+public class InMemoryLikeRepository implements LikeRepository {
+    private final InMemoryStore store;
+
+    @Autowired
+    public InMemoryLikeRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean exists(String likeId) {
+        return store.likeIds.containsKey(likeId);
+    }
+
+    // Like the plain INSERT, a duplicate fails instead of being ignored; a like of a missing post is dropped
+    @Override
+    public void insertLike(String likeId, String postId, String username) {
+        if (store.likeIds.containsKey(likeId)) throw new DuplicateKeyException("Like '" + likeId + "' already exists");
+        InMemoryStore.PostRecord p = store.posts.get(postId);
+        if (p != null && p.likes.containsKey(username)) {
+            throw new DuplicateKeyException("'" + username + "' already liked post '" + postId + "'");
+        }
+        store.addLike(likeId, postId, username);
+    }
+
+    @Override
+    public int insertLikeIfAbsent(String likeId, String postId, String username) {
+        return store.addLike(likeId, postId, username) ? 1 : 0;
+    }
+
+    @Override
+    public int[] insertLikesIfAbsent(List<Object[]> rows) {
+        int[] result = new int[rows.size()];
+        for (int i = 0; i < result.length; i++) {
+            Object[] r = rows.get(i);
+            result[i] = store.addLike((String) r[0], (String) r[1], (String) r[2]) ? 1 : 0;
+        }
+        return result;
+    }
+
+    @Override
+    public int[] deleteLikes(List<Object[]> rows) {
+        int[] result = new int[rows.size()];
+        for (int i = 0; i < result.length; i++) {
+            Object[] r = rows.get(i);
+            result[i] = store.removeLike((String) r[0], (String) r[1]) ? 1 : 0;
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteLike(String likeId) {
+        store.removeLike(likeId);
+    }
+
+    @Override
+    public int deleteLike(String postId, String username) {
+        return store.removeLike(postId, username) ? 1 : 0;
+    }
+
+    @Override
+    public List<String> findUsernamesByPostId(String postId) {
+        InMemoryStore.PostRecord p = store.posts.get(postId);
+        return p == null ? new ArrayList<>() : new ArrayList<>(p.likes.keySet());
+    }
+
+    @Override
+    public void deleteByPostId(String postId) {
+        store.removeLikes(postId);
+    }
+}
@@ -0,0 +1,122 @@
+package com.contoso.socialapp.repository.memory;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "memory")
+@Timed(value = "socialapp.repository", histogram = true)
+public class InMemoryPostRepository implements PostRepository {
+    private final InMemoryStore store;
+
+    @Autowired
+    public InMemoryPostRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void insertPost(String id, String username, String content, String createdAt, String updatedAt) {
+        store.insertPost(id, username, content, createdAt, updatedAt);
+    }
+
+    @Override
+    public void insertPosts(List<Object[]> rows) {
+        for (Object[] r : rows) {
+            store.insertPost((String) r[0], (String) r[1], (String) r[2], (String) r[3], (String) r[4]);
+        }
+    }
+
+    @Override
+    public List<PostDTO> findAll() {
+        List<PostDTO> result = new ArrayList<>(store.feed.size());
+        for (InMemoryStore.PostRecord p : store.feed.descendingMap().values()) result.add(InMemoryStore.toDto(p));
+        return result;
+    }
+
+    @Override
+    public List<PostDTO> findPage(String afterCreatedAt, String afterId, int limit) {
+        return toDtos(InMemoryStore.page(store.feed, afterCreatedAt, afterId, limit));
+    }
+
+    @Override
+    public List<PostDTO> findPageByTag(String tag, String afterCreatedAt, String afterId, int limit) {
+        return toDtos(InMemoryStore.page(store.postsByTag.get(tag), afterCreatedAt, afterId, limit));
+    }
+
+    @Override
+    public List<PostDTO> findPageByUser(String username, String afterCreatedAt, String afterId, int limit) {
+        return toDtos(InMemoryStore.page(store.postsByUser.get(username), afterCreatedAt, afterId, limit));
+    }
+
+    @Override
+    public List<PostDTO> findByIds(Collection<? extends String> ids) {
+        List<PostDTO> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            InMemoryStore.PostRecord p = store.posts.get(id);
+            if (p != null) result.add(InMemoryStore.toDto(p));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<PostDTO> findById(String id) {
+        InMemoryStore.PostRecord p = store.posts.get(id);
+        return p == null ? Optional.empty() : Optional.of(InMemoryStore.toDto(p));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findPostRow(String id) {
+        InMemoryStore.PostRecord p = store.posts.get(id);
+        if (p == null) return Optional.empty();
+        InMemoryStore.Body body = p.body;
+        Map<String, Object> m = new HashMap<>();
+        m.put("id", p.id);
+        m.put("username", p.username);
+        m.put("content", body.content());
+        m.put("created_at", p.createdAt);
+        m.put("updated_at", body.updatedAt());
+        m.put("likes", p.likes.size());
+        return Optional.of(m);
+    }
+
+    @Override
+    public void updatePostContent(String id, String content, String updatedAt) {
+        store.updatePost(id, content, updatedAt);
+    }
+
+    @Override
+    public void deletePost(String id) {
+        store.deletePost(id);
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return store.posts.containsKey(id);
+    }
+
+    // The like count is the size of the post's like set, so it already moved with the like itself
+    @Override
+    public void adjustLikes(String postId, int delta) {
+    }
+
+    @Override
+    public void adjustLikes(Map<String, Integer> deltasByPostId) {
+    }
+
+    private static List<PostDTO> toDtos(List<InMemoryStore.PostRecord> records) {
+        List<PostDTO> result = new ArrayList<>(records.size());
+        for (InMemoryStore.PostRecord p : records) result.add(InMemoryStore.toDto(p));
+        return result;
+    }
+}
@@ -0,0 +1,535 @@
+package com.contoso.socialapp.repository.memory;
+
+import com.contoso.socialapp.model.dto.CommentDTO;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Storage for app.storage.engine=memory. The feed and the per-user and per-tag indexes are
+ * ConcurrentSkipListMaps keyed by (createdAt, id) and walked in descending order for keyset pages, so
+ * reads never lock. Each post holds its comments in write order and its likes as a set, which makes
+ * the counts exact without separate counters. Changes to one post, including its cascade delete,
+ * are serialized on that post.
+ *
+ * With app.storage.memory.snapshot-path set the store is written there as JSON whenever it has changed,
+ * every snapshot-interval-seconds and on shutdown, and read back on startup when app.database.mode is
+ * persistent. A snapshot is taken while writes continue: each post is consistent with its comments and
+ * likes, but posts written during the walk may or may not be in it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "memory")
+public class InMemoryStore {
+    private static final Logger log = LoggerFactory.getLogger(InMemoryStore.class);
+    private static final int SNAPSHOT_VERSION = 1;
+
+    final ConcurrentHashMap<String, PostRecord> posts = new ConcurrentHashMap<>();
+    final ConcurrentSkipListMap<Key, PostRecord> feed = new ConcurrentSkipListMap<>();
+    final ConcurrentHashMap<String, ConcurrentSkipListMap<Key, PostRecord>> postsByUser = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, ConcurrentSkipListMap<Key, PostRecord>> postsByTag = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, CommentRecord> comments = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, ConcurrentSkipListMap<Key, CommentRecord>> commentsByUser = new ConcurrentHashMap<>();
+    // like_id -> post id, for the like-id lookups; the likes themselves live on the post
+    final ConcurrentHashMap<String, String> likeIds = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper;
+    private final Path snapshotPath;
+    private final long snapshotIntervalSeconds;
+    private final boolean restore;
+    private final AtomicLong changes = new AtomicLong();
+    private long savedChanges;
+    private ScheduledExecutorService snapshotter;
+
+    @Autowired
+    public InMemoryStore(ObjectMapper objectMapper,
+                         @Value("${app.storage.memory.snapshot-path:}") String snapshotPath,
+                         @Value("${app.storage.memory.snapshot-interval-seconds:60}") long snapshotIntervalSeconds,
+                         @Value("${app.database.mode:recreate}") String databaseMode) {
+        this.objectMapper = objectMapper;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.restore = "persistent".equalsIgnoreCase(databaseMode);
+    }
+
+    @PostConstruct
+    void start() {
+        if (snapshotPath == null) return;
+        if (restore && Files.exists(snapshotPath)) load();
+        if (snapshotIntervalSeconds <= 0) return;
+        snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "memory-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        snapshotter.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (snapshotter != null) snapshotter.shutdown();
+        if (snapshotPath != null) snapshot();
+    }
+
+    // Posts
+
+    void insertPost(String id, String username, String content, String createdAt, String updatedAt) {
+        PostRecord p = new PostRecord(id, username, createdAt, new Body(content, updatedAt));
+        if (posts.putIfAbsent(id, p) != null) throw new DuplicateKeyException("Post '" + id + "' already exists");
+        feed.put(p.key, p);
+        index(postsByUser, username, p.key, p);
+        changes.incrementAndGet();
+    }
+
+    void updatePost(String id, String content, String updatedAt) {
+        PostRecord p = posts.get(id);
+        if (p == null) return;
+        p.body = new Body(content, updatedAt);
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Removes the post with everything stored on it: comments, likes, tag refs and view counters.
+     */
+    void deletePost(String id) {
+        PostRecord p = posts.get(id);
+        if (p == null) return;
+        List<CommentRecord> dropped;
+        List<String> tags;
+        synchronized (p) {
+            if (p.deleted) return;
+            p.deleted = true;
+            dropped = new ArrayList<>(p.comments.values());
+            tags = new ArrayList<>(p.tagRefs.keySet());
+            p.comments.clear();
+            p.tagRefs.clear();
+            p.commentCount = 0;
+        }
+        posts.remove(id, p);
+        feed.remove(p.key);
+        unindex(postsByUser, p.username, p.key);
+        for (String tag : tags) unindex(postsByTag, tag, p.key);
+        for (CommentRecord c : dropped) forgetComment(c);
+        p.likes.values().forEach(likeIds::remove);
+        changes.incrementAndGet();
+    }
+
+    // Comments
+
+    void insertComment(String id, String postId, String username, String content, String createdAt, String updatedAt) {
+        CommentRecord c = new CommentRecord(id, postId, username, createdAt, new Body(content, updatedAt));
+        if (comments.putIfAbsent(id, c) != null) throw new DuplicateKeyException("Comment '" + id + "' already exists");
+        PostRecord p = posts.get(postId);
+        boolean attached = false;
+        if (p != null) {
+            synchronized (p) {
+                if (!p.deleted) {
+                    p.comments.put(id, c);
+                    p.commentCount = p.comments.size();
+                    attached = true;
+                }
+            }
+        }
+        // A comment has nowhere to live without its post; the services check the post before inserting
+        if (!attached) {
+            comments.remove(id, c);
+            return;
+        }
+        index(commentsByUser, username, c.key, c);
+        changes.incrementAndGet();
+    }
+
+    void updateComment(String id, String content, String updatedAt) {
+        CommentRecord c = comments.get(id);
+        if (c == null) return;
+        c.body = new Body(content, updatedAt);
+        changes.incrementAndGet();
+    }
+
+    void deleteComment(String id) {
+        CommentRecord c = comments.get(id);
+        if (c == null) return;
+        PostRecord p = posts.get(c.postId);
+        if (p != null) {
+            synchronized (p) {
+                p.comments.remove(id);
+                p.commentCount = p.comments.size();
+            }
+        }
+        forgetComment(c);
+        changes.incrementAndGet();
+    }
+
+    void deleteComments(String postId) {
+        PostRecord p = posts.get(postId);
+        if (p == null) return;
+        List<CommentRecord> dropped;
+        synchronized (p) {
+            dropped = new ArrayList<>(p.comments.values());
+            p.comments.clear();
+            p.commentCount = 0;
+        }
+        for (CommentRecord c : dropped) forgetComment(c);
+        changes.incrementAndGet();
+    }
+
+    List<CommentRecord> commentsOf(String postId) {
+        PostRecord p = posts.get(postId);
+        if (p == null) return List.of();
+        synchronized (p) {
+            return new ArrayList<>(p.comments.values());
+        }
+    }
+
+    private void forgetComment(CommentRecord c) {
+        comments.remove(c.id, c);
+        unindex(commentsByUser, c.username, c.key);
+    }
+
+    // Likes
+
+    /**
+     * Returns true when the like was recorded, false when the user already liked the post, the like id
+     * is taken, or the post does not exist.
+     */
+    boolean addLike(String likeId, String postId, String username) {
+        PostRecord p = posts.get(postId);
+        if (p == null) return false;
+        synchronized (p) {
+            if (p.deleted || p.likes.containsKey(username)) return false;
+            if (likeIds.putIfAbsent(likeId, postId) != null) return false;
+            p.likes.put(username, likeId);
+        }
+        changes.incrementAndGet();
+        return true;
+    }
+
+    boolean removeLike(String postId, String username) {
+        PostRecord p = posts.get(postId);
+        if (p == null) return false;
+        String likeId;
+        synchronized (p) {
+            likeId = p.likes.remove(username);
+            if (likeId == null) return false;
+            likeIds.remove(likeId, postId);
+        }
+        changes.incrementAndGet();
+        return true;
+    }
+
+    void removeLike(String likeId) {
+        String postId = likeIds.get(likeId);
+        if (postId == null) return;
+        PostRecord p = posts.get(postId);
+        if (p == null) {
+            likeIds.remove(likeId, postId);
+            return;
+        }
+        synchronized (p) {
+            p.likes.values().remove(likeId);
+            likeIds.remove(likeId, postId);
+        }
+        changes.incrementAndGet();
+    }
+
+    void removeLikes(String postId) {
+        PostRecord p = posts.get(postId);
+        if (p == null) return;
+        synchronized (p) {
+            p.likes.values().forEach(likeIds::remove);
+            p.likes.clear();
+        }
+        changes.incrementAndGet();
+    }
+
+    // Tags
+
+    void addTagRef(String postId, String tag) {
+        PostRecord p = posts.get(postId);
+        if (p == null) return;
+        synchronized (p) {
+            if (p.deleted) return;
+            if (p.tagRefs.merge(tag, 1, Integer::sum) == 1) index(postsByTag, tag, p.key, p);
+        }
+        changes.incrementAndGet();
+    }
+
+    void removeTagRef(String postId, String tag) {
+        PostRecord p = posts.get(postId);
+        if (p == null) return;
+        synchronized (p) {
+            Integer refs = p.tagRefs.get(tag);
+            if (refs == null) return;
+            if (refs > 1) {
+                p.tagRefs.put(tag, refs - 1);
+            } else {
+                p.tagRefs.remove(tag);
+                unindex(postsByTag, tag, p.key);
+            }
+        }
+        changes.incrementAndGet();
+    }
+
+    void removeTagRefs(String postId) {
+        PostRecord p = posts.get(postId);
+        if (p == null) return;
+        synchronized (p) {
+            for (String tag : p.tagRefs.keySet()) unindex(postsByTag, tag, p.key);
+            p.tagRefs.clear();
+        }
+        changes.incrementAndGet();
+    }
+
+    // Views
+
+    void addViews(String postId, long delta) {
+        PostRecord p = posts.get(postId);
+        if (p == null) return;
+        p.views.addAndGet(delta);
+        changes.incrementAndGet();
+    }
+
+    void saveSketch(String postId, byte[] registers, long uniqueViewers) {
+        PostRecord p = posts.get(postId);
+        if (p == null) return;
+        synchronized (p) {
+            p.sketch = registers;
+            p.uniqueViewers = uniqueViewers;
+        }
+        changes.incrementAndGet();
+    }
+
+    void deleteSketch(String postId) {
+        PostRecord p = posts.get(postId);
+        if (p == null) return;
+        p.sketch = null;
+        changes.incrementAndGet();
+    }
+
+    // Keyset page over an index: newest first, strictly after the (createdAt, id) cursor when given
+    static <V> List<V> page(NavigableMap<Key, V> index, String afterCreatedAt, String afterId, int limit) {
+        if (index == null) return List.of();
+        NavigableMap<Key, V> range = afterCreatedAt == null
+                ? index.descendingMap()
+                : index.headMap(new Key(afterCreatedAt, afterId), false).descendingMap();
+        List<V> result = new ArrayList<>(Math.min(limit, 64));
+        for (V v : range.values()) {
+            if (result.size() == limit) break;
+            result.add(v);
+        }
+        return result;
+    }
+
+    // Adds and removes under compute so a concurrent unindex cannot drop a map another thread is adding to
+    private static <V> void index(ConcurrentHashMap<String, ConcurrentSkipListMap<Key, V>> indexes, String name, Key key, V value) {
+        indexes.compute(name, (k, m) -> {
+            if (m == null) m = new ConcurrentSkipListMap<>();
+            m.put(key, value);
+            return m;
+        });
+    }
+
+    private static <V> void unindex(ConcurrentHashMap<String, ConcurrentSkipListMap<Key, V>> indexes, String name, Key key) {
+        indexes.computeIfPresent(name, (k, m) -> {
+            m.remove(key);
+            return m.isEmpty() ? null : m;
+        });
+    }
+
+    static PostDTO toDto(PostRecord p) {
+        Body body = p.body;
+        PostDTO dto = new PostDTO();
+        dto.setId(p.id);
+        dto.setUsername(p.username);
+        dto.setContent(body.content);
+        dto.setCreatedAt(p.createdAt);
+        dto.setUpdatedAt(body.updatedAt);
+        dto.setLikesCount(p.likes.size());
+        dto.setCommentsCount(p.commentCount);
+        dto.setViewsCount(p.views.get());
+        dto.setUniqueViewers(p.uniqueViewers);
+        return dto;
+    }
+
+    static CommentDTO toDto(CommentRecord c) {
+        Body body = c.body;
+        CommentDTO dto = new CommentDTO();
+        dto.setId(c.id);
+        dto.setPostId(c.postId);
+        dto.setUsername(c.username);
+        dto.setContent(body.content);
+        dto.setCreatedAt(c.createdAt);
+        dto.setUpdatedAt(body.updatedAt);
+        return dto;
+    }
+
+    // Snapshots
+
+    /**
+     * Writes the store to the snapshot file if it changed since the last snapshot, through a temporary
+     * file and a rename so a crash never leaves a partial snapshot. Returns the number of posts written,
+     * or -1 when nothing had changed.
+     */
+    public synchronized int snapshot() {
+        if (snapshotPath == null) throw new IllegalStateException("app.storage.memory.snapshot-path is not set");
+        long seen = changes.get();
+        if (seen == savedChanges && Files.exists(snapshotPath)) return -1;
+        List<PostState> states = new ArrayList<>(posts.size());
+        for (PostRecord p : feed.values()) {
+            PostState s = p.state();
+            if (s != null) states.add(s);
+        }
+        try {
+            Path dir = snapshotPath.toAbsolutePath().getParent();
+            if (dir != null) Files.createDirectories(dir);
+            Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), new Snapshot(SNAPSHOT_VERSION, states));
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write snapshot " + snapshotPath, e);
+        }
+        savedChanges = seen;
+        return states.size();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            int written = snapshot();
+            if (written >= 0) log.debug("Wrote snapshot of {} posts to {}", written, snapshotPath);
+        } catch (RuntimeException e) {
+            log.error("Failed to write in-memory store snapshot", e);
+        }
+    }
+
+    private void load() {
+        Snapshot snapshot;
+        try {
+            snapshot = objectMapper.readValue(snapshotPath.toFile(), Snapshot.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read snapshot " + snapshotPath, e);
+        }
+        if (snapshot.version() != SNAPSHOT_VERSION) {
+            throw new IllegalStateException("Unsupported snapshot version " + snapshot.version() + " in " + snapshotPath);
+        }
+        for (PostState s : snapshot.posts()) {
+            insertPost(s.id(), s.username(), s.content(), s.createdAt(), s.updatedAt());
+            for (CommentState c : s.comments()) {
+                insertComment(c.id(), s.id(), c.username(), c.content(), c.createdAt(), c.updatedAt());
+            }
+            s.likes().forEach((username, likeId) -> addLike(likeId, s.id(), username));
+            s.tags().forEach((tag, refs) -> {
+                for (int i = 0; i < refs; i++) addTagRef(s.id(), tag);
+            });
+            addViews(s.id(), s.views());
+            if (s.sketch() != null) saveSketch(s.id(), s.sketch(), s.uniqueViewers());
+        }
+        savedChanges = changes.get();
+        log.info("Restored {} posts and {} comments from {}", posts.size(), comments.size(), snapshotPath);
+    }
+
+    // Feed order: created_at, then id, compared as strings like SQLite's BINARY collation does
+    record Key(String createdAt, String id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key o) {
+            int c = createdAt.compareTo(o.createdAt);
+            return c != 0 ? c : id.compareTo(o.id);
+        }
+    }
+
+    // Content and updatedAt change together, so they are swapped as one immutable value
+    record Body(String content, String updatedAt) {
+    }
+
+    static final class PostRecord {
+        final String id;
+        final String username;
+        final String createdAt;
+        final Key key;
+        volatile Body body;
+        // username -> like_id; changed only while holding the post
+        final ConcurrentHashMap<String, String> likes = new ConcurrentHashMap<>();
+        final AtomicLong views = new AtomicLong();
+        volatile long uniqueViewers;
+        volatile byte[] sketch;
+        volatile int commentCount;
+
+        // Guarded by this
+        final LinkedHashMap<String, CommentRecord> comments = new LinkedHashMap<>();
+        final Map<String, Integer> tagRefs = new HashMap<>();
+        boolean deleted;
+
+        PostRecord(String id, String username, String createdAt, Body body) {
+            this.id = id;
+            this.username = username;
+            this.createdAt = createdAt;
+            this.key = new Key(createdAt, id);
+            this.body = body;
+        }
+
+        synchronized PostState state() {
+            if (deleted) return null;
+            List<CommentState> cs = new ArrayList<>(comments.size());
+            for (CommentRecord c : comments.values()) {
+                Body b = c.body;
+                cs.add(new CommentState(c.id, c.username, b.content, c.createdAt, b.updatedAt));
+            }
+            Body b = body;
+            return new PostState(id, username, b.content, createdAt, b.updatedAt, views.get(), uniqueViewers, sketch,
+                    new HashMap<>(likes), new HashMap<>(tagRefs), cs);
+        }
+    }
+
+    static final class CommentRecord {
+        final String id;
+        final String postId;
+        final String username;
+        final String createdAt;
+        final Key key;
+        volatile Body body;
+
+        CommentRecord(String id, String postId, String username, String createdAt, Body body) {
+            this.id = id;
+            this.postId = postId;
+            this.username = username;
+            this.createdAt = createdAt;
+            this.key = new Key(createdAt, id);
+            this.body = body;
+        }
+    }
+
+    record Snapshot(int version, List<PostState> posts) {
+    }
+
+    record PostState(String id, String username, String content, String createdAt, String updatedAt,
+                     long views, long uniqueViewers, byte[] sketch,
+                     Map<String, String> likes, Map<String, Integer> tags, List<CommentState> comments) {
+    }
+
+    record CommentState(String id, String username, String content, String createdAt, String updatedAt) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.contoso.socialapp.repository.memory;
+
+import com.contoso.socialapp.repository.TagRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tag refs are kept on the posts in the store. There is no database behind this engine, so trending
+ * checkpoints are dropped: TrendingTags keeps counting in memory, but a restart starts it empty.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "memory")
+public class InMemoryTagRepository implements TagRepository {
+    private final InMemoryStore store;
+
+    @Autowired
+    public InMemoryTagRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void addRefs(String postId, Collection<String> tags) {
+        for (String tag : tags) store.addTagRef(postId, tag);
+    }
+
+    @Override
+    public void addRefs(List<Object[]> rows) {
+        for (Object[] r : rows) store.addTagRef((String) r[1], (String) r[0]);
+    }
+
+    @Override
+    public void removeRefs(String postId, Collection<String> tags) {
+        for (String tag : tags) store.removeTagRef(postId, tag);
+    }
+
+    @Override
+    public void deleteByPostId(String postId) {
+        store.removeTagRefs(postId);
+    }
+
+    @Override
+    public void replaceBuckets(List<Object[]> buckets, List<Object[]> rows) {
+    }
+
+    @Override
+    public void deleteBucketsBefore(String granularity, long bucketStart) {
+    }
+
+    @Override
+    public void loadBuckets(String granularity, long fromBucketStart, RowCallbackHandler handler) {
+    }
+}
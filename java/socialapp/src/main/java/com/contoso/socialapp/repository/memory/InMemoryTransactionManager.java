@@ -0,0 +1,35 @@
+package com.contoso.socialapp.repository.memory;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Transaction manager for app.storage.engine=memory, where there is no connection to begin or commit.
+ * The services keep their TransactionTemplates unchanged, but the store itself is not transactional:
+ * every repository call is applied when it is made and is atomic on its own, and a rollback does not
+ * undo the calls that ran before it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "memory")
+public class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+        return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.contoso.socialapp.repository.memory;
+
+import com.contoso.socialapp.repository.ViewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "memory")
+public class InMemoryViewRepository implements ViewRepository {
+    private final InMemoryStore store;
+
+    @Autowired
+    public InMemoryViewRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void addViews(List<Object[]> rows) {
+        for (Object[] r : rows) store.addViews((String) r[1], ((Number) r[0]).longValue());
+    }
+
+    @Override
+    public void saveSketches(List<Object[]> rows) {
+        for (Object[] r : rows) store.saveSketch((String) r[2], (byte[]) r[0], ((Number) r[1]).longValue());
+    }
+
+    @Override
+    public Map<String, byte[]> findSketches(Collection<String> postIds) {
+        Map<String, byte[]> result = new HashMap<>();
+        for (String id : postIds) {
+            InMemoryStore.PostRecord p = store.posts.get(id);
+            byte[] sketch = p == null ? null : p.sketch;
+            if (sketch != null) result.put(id, sketch);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, long[]> findCounts(Collection<String> postIds) {
+        Map<String, long[]> result = new HashMap<>();
+        for (String id : postIds) {
+            InMemoryStore.PostRecord p = store.posts.get(id);
+            if (p != null) result.put(id, new long[]{p.views.get(), p.uniqueViewers});
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteByPostId(String postId) {
+        store.deleteSketch(postId);
+    }
+}
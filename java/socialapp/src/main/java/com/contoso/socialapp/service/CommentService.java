@@ -1,41 +1,136 @@
 package com.contoso.socialapp.service;
 
 import com.contoso.socialapp.model.dto.CommentDTO;
+import com.contoso.socialapp.model.dto.CommentPage;
+import com.contoso.socialapp.model.dto.NewCommentRequest;
 import com.contoso.socialapp.repository.CommentRepository;
 import com.contoso.socialapp.repository.PostRepository;
+import com.contoso.socialapp.repository.TagRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
+@Timed(value = "socialapp.service", histogram = true)
 public class CommentService {
     private final CommentRepository commentRepo;
     private final PostRepository postRepo;
+    private final TagRepository tagRepo;
+    private final PostCache cache;
+    private final FeedEventHub events;
+    private final TrendingTags trending;
+    private final HotPosts hot;
+    private final TransactionTemplate tx;
 
     @Autowired
-    public CommentService(CommentRepository commentRepo, PostRepository postRepo) {
+    public CommentService(CommentRepository commentRepo, PostRepository postRepo, TagRepository tagRepo, PostCache cache,
+                          FeedEventHub events, TrendingTags trending, HotPosts hot,
+                          PlatformTransactionManager txManager) {
         this.commentRepo = commentRepo;
         this.postRepo = postRepo;
+        this.tagRepo = tagRepo;
+        this.cache = cache;
+        this.events = events;
+        this.trending = trending;
+        this.hot = hot;
+        this.tx = new TransactionTemplate(txManager);
     }
 
     public Optional<CommentDTO> createComment(String postId, String username, String content) {
         if (postRepo.findPostRow(postId).isEmpty()) return Optional.empty();
         String id = UUID.randomUUID().toString();
         String now = Instant.now().toString();
-        commentRepo.insertComment(id, postId, username, content, now, now);
+        // Tags in a comment index the post it belongs to
+        Set<String> tags = TagExtractor.extract(content);
+        if (tags.isEmpty()) {
+            commentRepo.insertComment(id, postId, username, content, now, now);
+        } else {
+            tx.executeWithoutResult(status -> {
+                commentRepo.insertComment(id, postId, username, content, now, now);
+                tagRepo.addRefs(postId, tags);
+            });
+            trending.record(tags);
+        }
+        cache.invalidateComments(postId);
+        hot.adjust(postId, 0, 1);
         Optional<CommentDTO> c = commentRepo.findByPostAndId(postId, id);
+        c.ifPresent(comment -> events.publish("comment.created", postId, comment));
         return c;
     }
 
+    /**
+     * Checks the post once and inserts all comments with one batched statement in the same transaction.
+     * Returns empty when the post does not exist, otherwise the comments in request order.
+     */
+    public Optional<List<CommentDTO>> createComments(String postId, List<NewCommentRequest> requests) {
+        String now = Instant.now().toString();
+        List<CommentDTO> created = new ArrayList<>(requests.size());
+        List<Object[]> rows = new ArrayList<>(requests.size());
+        List<Object[]> tagRows = new ArrayList<>();
+        List<String> used = new ArrayList<>();
+        for (NewCommentRequest req : requests) {
+            CommentDTO c = new CommentDTO();
+            c.setId(UUID.randomUUID().toString());
+            c.setPostId(postId);
+            c.setUsername(req.getUsername());
+            c.setContent(req.getContent());
+            c.setCreatedAt(now);
+            c.setUpdatedAt(now);
+            created.add(c);
+            rows.add(new Object[]{c.getId(), postId, c.getUsername(), c.getContent(), now, now});
+            for (String tag : TagExtractor.extract(c.getContent())) {
+                tagRows.add(new Object[]{tag, postId});
+                used.add(tag);
+            }
+        }
+        Boolean found = tx.execute(status -> {
+            if (!postRepo.exists(postId)) return false;
+            if (!rows.isEmpty()) commentRepo.insertComments(rows);
+            tagRepo.addRefs(tagRows);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(found)) return Optional.empty();
+        trending.record(used);
+        if (!rows.isEmpty()) {
+            cache.invalidateComments(postId);
+            hot.adjust(postId, 0, rows.size());
+        }
+        for (CommentDTO c : created) events.publish("comment.created", postId, c);
+        return Optional.of(created);
+    }
+
     public Optional<CommentDTO> getComment(String postId, String commentId) {
         return commentRepo.findByPostAndId(postId, commentId);
     }
 
     public java.util.List<CommentDTO> listCommentsByPostId(String postId) {
-        return commentRepo.findByPostId(postId);
+        return cache.comments(postId, commentRepo::findByPostId);
+    }
+
+    public CommentPage listCommentsByUser(String username, int limit, String cursor) {
+        List<CommentDTO> comments;
+        if (cursor == null || cursor.isEmpty()) {
+            comments = commentRepo.findPageByUser(username, null, null, limit);
+        } else {
+            PostCursor after = PostCursor.decode(cursor);
+            comments = commentRepo.findPageByUser(username, after.getCreatedAt(), after.getId(), limit);
+        }
+        String next = null;
+        if (comments.size() == limit) {
+            CommentDTO last = comments.get(comments.size() - 1);
+            next = PostCursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CommentPage(comments, next);
     }
 
     public Optional<CommentDTO> updateComment(String postId, String commentId, String username, String content) {
@@ -44,14 +139,41 @@ public class CommentService {
         CommentDTO c = existing.get();
         if (!c.getUsername().equals(username)) return Optional.empty();
         String now = Instant.now().toString();
-        commentRepo.updateCommentContent(commentId, content, now);
-        return commentRepo.findByPostAndId(postId, commentId);
+        Set<String> before = TagExtractor.extract(c.getContent());
+        Set<String> after = TagExtractor.extract(content);
+        Set<String> added = TagExtractor.difference(after, before);
+        Set<String> removed = TagExtractor.difference(before, after);
+        if (added.isEmpty() && removed.isEmpty()) {
+            commentRepo.updateCommentContent(commentId, content, now);
+        } else {
+            tx.executeWithoutResult(status -> {
+                commentRepo.updateCommentContent(commentId, content, now);
+                tagRepo.removeRefs(postId, removed);
+                tagRepo.addRefs(postId, added);
+            });
+            trending.record(added);
+        }
+        cache.invalidateComments(postId);
+        Optional<CommentDTO> updated = commentRepo.findByPostAndId(postId, commentId);
+        updated.ifPresent(comment -> events.publish("comment.updated", postId, comment));
+        return updated;
     }
 
     public boolean deleteComment(String postId, String commentId) {
         Optional<CommentDTO> c = commentRepo.findByPostAndId(postId, commentId);
         if (c.isEmpty()) return false;
-        commentRepo.deleteComment(commentId);
+        Set<String> tags = TagExtractor.extract(c.get().getContent());
+        if (tags.isEmpty()) {
+            commentRepo.deleteComment(commentId);
+        } else {
+            tx.executeWithoutResult(status -> {
+                commentRepo.deleteComment(commentId);
+                tagRepo.removeRefs(postId, tags);
+            });
+        }
+        cache.invalidateComments(postId);
+        hot.adjust(postId, 0, -1);
+        events.publish("comment.deleted", postId, Map.of("id", commentId, "postId", postId));
         return true;
     }
 }
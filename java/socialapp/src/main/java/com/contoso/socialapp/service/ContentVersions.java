@@ -0,0 +1,79 @@
+package com.contoso.socialapp.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory change sequence behind the ETag and Last-Modified headers on post and comment reads. Every
+ * write takes the next value of one process-wide sequence; the feed's version is the latest of them, a
+ * post's version the latest write to that post. Entities not written since startup share the startup
+ * version, and tags carry a per-boot prefix so a restart never revalidates a tag from before it.
+ */
+@Component
+public class ContentVersions {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Version initial = next();
+    private final ConcurrentHashMap<String, Version> posts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Version> comments = new ConcurrentHashMap<>();
+    private volatile Version feed = initial;
+
+    public Version feed() {
+        return feed;
+    }
+
+    // Highest sequence handed out so far; a version above it was written after this call
+    public long latest() {
+        return sequence.get();
+    }
+
+    public Version post(String postId) {
+        return posts.getOrDefault(postId, initial);
+    }
+
+    public Version comments(String postId) {
+        return comments.getOrDefault(postId, initial);
+    }
+
+    // Entries are kept after a delete so a stale tag for a removed post can never match again
+    public void postChanged(String postId) {
+        Version v = next();
+        posts.put(postId, v);
+        feed = v;
+    }
+
+    // The post body carries commentsCount, so it changes along with its comment list
+    public void commentsChanged(String postId) {
+        Version v = next();
+        comments.put(postId, v);
+        posts.put(postId, v);
+        feed = v;
+    }
+
+    public void feedChanged() {
+        feed = next();
+    }
+
+    private Version next() {
+        long seq = sequence.incrementAndGet();
+        return new Version(seq, "\"" + epoch + "-" + seq + "\"", System.currentTimeMillis());
+    }
+
+    public static final class Version {
+        private final long sequence;
+        private final String etag;
+        private final long lastModified;
+
+        Version(long sequence, String etag, long lastModified) {
+            this.sequence = sequence;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public long getSequence() { return sequence; }
+        public String getEtag() { return etag; }
+        public long getLastModified() { return lastModified; }
+    }
+}
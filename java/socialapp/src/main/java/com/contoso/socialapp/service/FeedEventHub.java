@@ -0,0 +1,201 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.FeedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of post, comment and like changes to live subscribers. Publishing only enqueues:
+ * every subscriber has its own bounded queue, drained on a virtual thread, so a slow consumer never
+ * blocks a write or another subscriber. Like-count updates for a post coalesce into the latest one
+ * while queued. A subscriber whose queue overflows is closed; clients reconnect and re-read the feed.
+ */
+@Component
+public class FeedEventHub {
+    private static final Logger logger = LoggerFactory.getLogger(FeedEventHub.class);
+
+    static final String LIKES = "post.likes";
+
+    /**
+     * Delivers one event to a client; an exception closes the subscription.
+     */
+    public interface Sink {
+        void send(FeedEvent event) throws Exception;
+
+        void heartbeat() throws Exception;
+
+        void close();
+    }
+
+    private final int bufferSize;
+    private final long heartbeatSeconds;
+    private final Set<Subscription> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService heartbeats;
+
+    @Autowired
+    public FeedEventHub(@Value("${app.events.buffer-size:256}") int bufferSize,
+                        @Value("${app.events.heartbeat-seconds:30}") long heartbeatSeconds) {
+        this.bufferSize = bufferSize;
+        this.heartbeatSeconds = heartbeatSeconds;
+    }
+
+    @PostConstruct
+    void start() {
+        heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "feed-event-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        // Idle SSE connections are otherwise only noticed as dead when the next event fails
+        heartbeats.scheduleWithFixedDelay(() -> subscribers.forEach(s -> s.offer(Subscription.HEARTBEAT)),
+                heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (heartbeats != null) heartbeats.shutdownNow();
+        subscribers.forEach(Subscription::close);
+        senders.shutdownNow();
+    }
+
+    /**
+     * Subscribes to every event, or only to those of one post when {@code postId} is not null.
+     */
+    public Subscription subscribe(String postId, Sink sink) {
+        Subscription s = new Subscription(postId, sink);
+        subscribers.add(s);
+        return s;
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public void publish(String type, String postId, Object data) {
+        if (subscribers.isEmpty()) return;
+        FeedEvent event = new FeedEvent(sequence.incrementAndGet(), type, postId, data);
+        for (Subscription s : subscribers) {
+            if (s.postId == null || s.postId.equals(postId)) s.offer(event);
+        }
+    }
+
+    public void likesChanged(String postId, int likesCount) {
+        publish(LIKES, postId, Map.of("postId", postId, "likesCount", likesCount));
+    }
+
+    public final class Subscription {
+        private static final Object HEARTBEAT = new Object();
+
+        private final String postId;
+        private final Sink sink;
+        // Holds events, HEARTBEAT, or a post id standing in for that post's entry in pendingLikes
+        private final ArrayDeque<Object> queue = new ArrayDeque<>();
+        private final Map<String, FeedEvent> pendingLikes = new HashMap<>();
+        private boolean draining;
+        private volatile boolean closed;
+
+        private Subscription(String postId, Sink sink) {
+            this.postId = postId;
+            this.sink = sink;
+        }
+
+        public void close() {
+            if (markClosed()) sink.close();
+        }
+
+        // For publishers and the heartbeat thread: completing an SseEmitter locks it and may wait on a send
+        // in progress, so the sink is closed on a sender thread and the caller only drops the subscription
+        private void closeLater() {
+            if (!markClosed()) return;
+            try {
+                senders.execute(sink::close);
+            } catch (RejectedExecutionException e) {
+                // Only after stop(), when nothing is left to block
+                sink.close();
+            }
+        }
+
+        private boolean markClosed() {
+            if (closed) return false;
+            closed = true;
+            subscribers.remove(this);
+            synchronized (this) {
+                queue.clear();
+                pendingLikes.clear();
+            }
+            return true;
+        }
+
+        void offer(Object item) {
+            if (closed) return;
+            boolean overflow = false;
+            boolean startDrain = false;
+            synchronized (this) {
+                if (item instanceof FeedEvent e && LIKES.equals(e.getType())) {
+                    // A queued count for the same post is replaced in place instead of queued twice
+                    if (pendingLikes.put(e.getPostId(), e) == null) {
+                        if (queue.size() >= bufferSize) overflow = true;
+                        else queue.add(e.getPostId());
+                    }
+                } else if (queue.size() >= bufferSize) {
+                    overflow = true;
+                } else {
+                    queue.add(item);
+                }
+                if (!overflow && !draining) {
+                    draining = true;
+                    startDrain = true;
+                }
+            }
+            if (overflow) {
+                logger.debug("Closing slow event subscriber after {} queued events", bufferSize);
+                closeLater();
+            } else if (startDrain) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (!closed) {
+                Object item;
+                synchronized (this) {
+                    item = queue.poll();
+                    if (item == null) {
+                        draining = false;
+                        return;
+                    }
+                    if (item instanceof String likedPostId) item = pendingLikes.remove(likedPostId);
+                }
+                try {
+                    if (item == HEARTBEAT) sink.heartbeat();
+                    else sink.send((FeedEvent) item);
+                } catch (Exception e) {
+                    close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.exception.BadRequestException;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Top-K "hot" ranking, HN style: (1 + likes + 2 * comments) / (ageHours + 2)^1.8. The candidates live in a
+ * skip list ordered by score, so a page is a walk from the head and costs O(limit) however many posts exist.
+ * <p>
+ * Like and comment writes apply their deltas in place. Scores are computed against a shared reference time,
+ * which keeps every entry comparable; the background rescore moves that reference forward, reloads the
+ * counts of the candidates in one batched read and admits posts that saw activity while untracked. Counts
+ * can therefore lag a write that races with a rescore until the next one.
+ */
+@Component
+public class HotPosts {
+    private static final Logger logger = LoggerFactory.getLogger(HotPosts.class);
+
+    static final double GRAVITY = 1.8;
+    static final int COMMENT_WEIGHT = 2;
+    private static final double HOUR_MS = 3_600_000d;
+    private static final char SEPARATOR = '|';
+
+    private static final Comparator<Entry> RANK = Comparator.<Entry>comparingDouble(e -> -e.score).thenComparing(e -> e.id);
+
+    private final PostRepository postRepo;
+    private final int capacity;
+    private final long maxAgeMs;
+    private final long rescoreSeconds;
+
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(RANK);
+    private final ConcurrentHashMap<String, Entry> byId = new ConcurrentHashMap<>();
+    // Posts that had activity while outside the candidate set; loaded by the next rescore
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // Writers share the read lock; a rescore takes the write lock to swap the reference time
+    private final ReadWriteLock rescoreLock = new ReentrantReadWriteLock();
+    // Posts removed while a rescore is reading counts, so it does not put them back; null when none runs
+    private volatile Set<String> removedDuringRescore;
+    private volatile long referenceMs = System.currentTimeMillis();
+    private ScheduledExecutorService rescorer;
+
+    @Autowired
+    public HotPosts(PostRepository postRepo,
+                    @Value("${app.posts.hot.capacity:1000}") int capacity,
+                    @Value("${app.posts.hot.max-age-hours:48}") long maxAgeHours,
+                    @Value("${app.posts.hot.rescore-seconds:60}") long rescoreSeconds) {
+        this.postRepo = postRepo;
+        this.capacity = capacity;
+        this.maxAgeMs = TimeUnit.HOURS.toMillis(maxAgeHours);
+        this.rescoreSeconds = rescoreSeconds;
+    }
+
+    @PostConstruct
+    void start() {
+        // Seeded from the newest posts only; older ones join as soon as they are liked or commented on
+        for (PostDTO p : postRepo.findPage(null, null, capacity)) added(p);
+        if (rescoreSeconds <= 0) return;
+        rescorer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "hot-posts-rescore");
+            t.setDaemon(true);
+            return t;
+        });
+        rescorer.scheduleWithFixedDelay(this::rescoreQuietly, rescoreSeconds, rescoreSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (rescorer != null) rescorer.shutdown();
+    }
+
+    public void added(PostDTO post) {
+        rescoreLock.readLock().lock();
+        try {
+            Entry e = new Entry(post.getId(), Instant.parse(post.getCreatedAt()).toEpochMilli(),
+                    post.getLikesCount(), post.getCommentsCount(), referenceMs);
+            if (isCandidate(e)) byId.compute(e.id, (id, old) -> replace(old, e));
+        } finally {
+            rescoreLock.readLock().unlock();
+        }
+        trim();
+    }
+
+    public void adjust(String postId, int likesDelta, int commentsDelta) {
+        rescoreLock.readLock().lock();
+        try {
+            byId.compute(postId, (id, old) -> {
+                if (old == null) {
+                    pending.add(id);
+                    return null;
+                }
+                return replace(old, new Entry(id, old.createdAtMs, old.likes + likesDelta, old.comments + commentsDelta, referenceMs));
+            });
+        } finally {
+            rescoreLock.readLock().unlock();
+        }
+        trim();
+    }
+
+    public void removed(String postId) {
+        rescoreLock.readLock().lock();
+        try {
+            // Dropped before the rescore check: a rescore that has not started yet cannot see the post
+            pending.remove(postId);
+            Entry old = byId.remove(postId);
+            if (old != null) ranking.remove(old);
+            Set<String> removed = removedDuringRescore;
+            if (removed != null) removed.add(postId);
+        } finally {
+            rescoreLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Post ids of the next page, best first, continuing strictly after {@code cursor} when given.
+     */
+    public Page page(String cursor, int limit) {
+        Iterator<Entry> it = cursor == null || cursor.isEmpty()
+                ? ranking.iterator()
+                : ranking.tailSet(decode(cursor), false).iterator();
+        List<String> ids = new ArrayList<>(limit);
+        Entry last = null;
+        while (it.hasNext() && ids.size() < limit) {
+            last = it.next();
+            ids.add(last.id);
+        }
+        String next = ids.size() == limit && it.hasNext() ? encode(last) : null;
+        return new Page(ids, next);
+    }
+
+    public int size() {
+        return ranking.size();
+    }
+
+    private void rescoreQuietly() {
+        try {
+            rescore(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            logger.error("Failed to rescore hot posts", e);
+        }
+    }
+
+    /**
+     * Moves the reference time to {@code nowMs} and rebuilds the ranking from fresh counts of the current
+     * candidates plus the pending posts. Reads at most capacity + pending rows. Posts removed while the
+     * counts are read are left out even when the read still returned them. Synchronized so an explicit
+     * rescore never overlaps the scheduled one.
+     */
+    synchronized void rescore(long nowMs) {
+        Set<String> removed = ConcurrentHashMap.newKeySet();
+        removedDuringRescore = removed;
+        Set<String> ids = new HashSet<>(byId.keySet());
+        for (Iterator<String> it = pending.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        List<PostDTO> fresh = ids.isEmpty() ? List.of() : postRepo.findByIds(ids);
+        rescoreLock.writeLock().lock();
+        try {
+            referenceMs = nowMs;
+            ranking.clear();
+            byId.clear();
+            removedDuringRescore = null;
+            for (PostDTO p : fresh) {
+                if (removed.contains(p.getId())) continue;
+                Entry e = new Entry(p.getId(), Instant.parse(p.getCreatedAt()).toEpochMilli(),
+                        p.getLikesCount(), p.getCommentsCount(), nowMs);
+                if (!isCandidate(e)) continue;
+                byId.put(e.id, e);
+                ranking.add(e);
+            }
+        } finally {
+            rescoreLock.writeLock().unlock();
+        }
+        trim();
+    }
+
+    private boolean isCandidate(Entry e) {
+        if (referenceMs - e.createdAtMs > maxAgeMs) return false;
+        if (ranking.size() < capacity) return true;
+        Entry worst = ranking.isEmpty() ? null : ranking.last();
+        return worst == null || RANK.compare(e, worst) < 0;
+    }
+
+    // Called inside byId.compute so updates of one post are applied in order
+    private Entry replace(Entry old, Entry e) {
+        if (old != null) ranking.remove(old);
+        ranking.add(e);
+        return e;
+    }
+
+    private void trim() {
+        while (ranking.size() > capacity) {
+            Entry worst = ranking.pollLast();
+            if (worst == null) return;
+            byId.remove(worst.id, worst);
+        }
+    }
+
+    private static String encode(Entry last) {
+        String raw = Double.toString(last.score) + SEPARATOR + last.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Entry decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARATOR);
+            if (sep <= 0 || sep == raw.length() - 1) throw new BadRequestException("The cursor parameter is invalid");
+            return new Entry(raw.substring(sep + 1), Double.parseDouble(raw.substring(0, sep)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("The cursor parameter is invalid");
+        }
+    }
+
+    public static final class Page {
+        private final List<String> ids;
+        private final String nextCursor;
+
+        Page(List<String> ids, String nextCursor) {
+            this.ids = ids;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<String> getIds() { return ids; }
+
+        // Opaque cursor for the following page, or null when this is the last page
+        public String getNextCursor() { return nextCursor; }
+    }
+
+    private static final class Entry {
+        final String id;
+        final long createdAtMs;
+        final int likes;
+        final int comments;
+        final double score;
+
+        Entry(String id, long createdAtMs, int likes, int comments, long referenceMs) {
+            this.id = id;
+            this.createdAtMs = createdAtMs;
+            this.likes = likes;
+            this.comments = comments;
+            // Posts newer than the reference get a slightly negative age so recency still orders them
+            // between rescores; the floor keeps the base positive
+            double ageHours = Math.max(-HOUR_MS, referenceMs - createdAtMs) / HOUR_MS;
+            this.score = (1 + Math.max(0, likes) + COMMENT_WEIGHT * Math.max(0, comments)) / Math.pow(ageHours + 2, GRAVITY);
+        }
+
+        // Search key for cursors
+        Entry(String id, double score) {
+            this.id = id;
+            this.createdAtMs = 0;
+            this.likes = 0;
+            this.comments = 0;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.contoso.socialapp.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size HyperLogLog sketch: 2^10 one-byte registers, about 3% standard error. Registers only ever
+ * grow, so {@link #add} is a lock-free compare-and-set on a single byte and two sketches merge by taking
+ * the maximum of each register.
+ */
+final class HyperLogLog {
+    static final int PRECISION = 10;
+    static final int REGISTERS = 1 << PRECISION;
+
+    private static final VarHandle REGISTER = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    /**
+     * Returns true when a register changed, i.e. the sketch has to be written again.
+     */
+    boolean add(String value) {
+        long hash = hash64(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        byte rank = (byte) Math.min(Long.numberOfLeadingZeros(hash << PRECISION) + 1, 64 - PRECISION + 1);
+        return raise(index, rank);
+    }
+
+    void merge(byte[] other) {
+        if (other == null || other.length != REGISTERS) return;
+        for (int i = 0; i < REGISTERS; i++) raise(i, other[i]);
+    }
+
+    long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < REGISTERS; i++) {
+            byte r = (byte) REGISTER.getOpaque(registers, i);
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // Linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        return Math.round(estimate);
+    }
+
+    byte[] toBytes() {
+        byte[] copy = new byte[REGISTERS];
+        for (int i = 0; i < REGISTERS; i++) copy[i] = (byte) REGISTER.getOpaque(registers, i);
+        return copy;
+    }
+
+    private boolean raise(int index, byte rank) {
+        byte current = (byte) REGISTER.getOpaque(registers, index);
+        while (rank > current) {
+            if (REGISTER.compareAndSet(registers, index, current, rank)) return true;
+            current = (byte) REGISTER.getOpaque(registers, index);
+        }
+        return false;
+    }
+
+    // FNV-1a over the UTF-8 bytes, then the MurmurHash3 finalizer to spread the high bits used for the index
+    static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
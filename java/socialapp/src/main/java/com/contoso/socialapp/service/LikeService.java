@@ -3,64 +3,106 @@ package com.contoso.socialapp.service;
 import com.contoso.socialapp.repository.LikeRepository;
 import com.contoso.socialapp.repository.PostRepository;
 import com.contoso.socialapp.model.dto.LikeResponse;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
+@Timed(value = "socialapp.service", histogram = true)
 public class LikeService {
+    private static final int PUBLISH_STRIPES = 64;
+
     private final LikeRepository likeRepo;
     private final PostRepository postRepo;
-    private final ObjectMapper objectMapper;
+    private final LikeWriteBuffer writeBuffer;
+    private final PostCache cache;
+    private final FeedEventHub events;
+    private final HotPosts hot;
+    private final TransactionTemplate tx;
+    private final Lock[] publishLocks = new Lock[PUBLISH_STRIPES];
 
     @Autowired
-    public LikeService(LikeRepository likeRepo, PostRepository postRepo, ObjectMapper objectMapper) {
+    public LikeService(LikeRepository likeRepo, PostRepository postRepo, LikeWriteBuffer writeBuffer,
+                       PostCache cache, FeedEventHub events, HotPosts hot, PlatformTransactionManager txManager) {
         this.likeRepo = likeRepo;
         this.postRepo = postRepo;
-        this.objectMapper = objectMapper;
+        this.writeBuffer = writeBuffer;
+        this.cache = cache;
+        this.events = events;
+        this.hot = hot;
+        this.tx = new TransactionTemplate(txManager);
+        for (int i = 0; i < publishLocks.length; i++) publishLocks[i] = new ReentrantLock();
     }
 
     public LikeResponse addLike(String postId, String username) {
-        var postRow = postRepo.findPostRow(postId);
-        if (postRow.isEmpty()) return null;
+        if (writeBuffer.isEnabled()) {
+            // Accepted into the buffer; likesCount catches up on the next flush
+            if (!postRepo.exists(postId)) return null;
+            writeBuffer.like(postId, username);
+            return new LikeResponse(postId, username, Instant.now().toString());
+        }
         String likeId = postId + "#" + username;
-        if (!likeRepo.exists(likeId)) {
-            likeRepo.insertLike(likeId, postId, username);
-            // update posts.likes_by json and likes count
-            String likesByJson = (String) postRow.get().get("likes_by");
-            try {
-                List<String> likesBy = objectMapper.readValue(likesByJson, new TypeReference<List<String>>(){});
-                likesBy.add(username);
-                postRepo.setLikesByAndCount(postId, likesBy);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+        // The insert and the counter bump commit together, so concurrent likes never lose updates
+        boolean[] changed = {false};
+        Boolean found = tx.execute(status -> {
+            if (likeRepo.insertLikeIfAbsent(likeId, postId, username) == 1) {
+                postRepo.adjustLikes(postId, 1);
+                changed[0] = true;
+                return true;
             }
+            return postRepo.exists(postId);
+        });
+        if (changed[0]) {
+            // A repeated like or unlike, or an unknown post, leaves the cached entry valid
+            cache.invalidatePost(postId);
+            hot.adjust(postId, 1, 0);
+            publishLikes(postId);
         }
+        if (!Boolean.TRUE.equals(found)) return null;
         String likedAt = Instant.now().toString();
         return new LikeResponse(postId, username, likedAt);
     }
 
     public boolean removeLike(String postId, String username) {
-        var postRow = postRepo.findPostRow(postId);
-        if (postRow.isEmpty()) return false;
-        String likeId = postId + "#" + username;
-        if (likeRepo.exists(likeId)) {
-            likeRepo.deleteLike(likeId);
-            String likesByJson = (String) postRow.get().get("likes_by");
-            try {
-                List<String> likesBy = objectMapper.readValue(likesByJson, new TypeReference<List<String>>(){});
-                likesBy.removeIf(u -> u.equals(username));
-                postRepo.setLikesByAndCount(postId, likesBy);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+        if (writeBuffer.isEnabled()) {
+            if (!postRepo.exists(postId)) return false;
+            writeBuffer.unlike(postId, username);
+            return true;
+        }
+        boolean[] changed = {false};
+        Boolean found = tx.execute(status -> {
+            if (likeRepo.deleteLike(postId, username) == 1) {
+                postRepo.adjustLikes(postId, -1);
+                changed[0] = true;
+                return true;
             }
+            return postRepo.exists(postId);
+        });
+        if (changed[0]) {
+            cache.invalidatePost(postId);
+            hot.adjust(postId, -1, 0);
+            publishLikes(postId);
+        }
+        return Boolean.TRUE.equals(found);
+    }
+
+    // Reads the committed count back through the cache, and only while someone is listening. Two writers
+    // can commit in one order and read back in the other, so the read and the publish happen together under
+    // the post's stripe: each read sees every commit published before it, and an older count never follows a newer one
+    private void publishLikes(String postId) {
+        if (!events.hasSubscribers()) return;
+        Lock lock = publishLocks[Math.floorMod(postId.hashCode(), publishLocks.length)];
+        lock.lock();
+        try {
+            cache.post(postId, postRepo::findById).ifPresent(p -> events.likesChanged(postId, p.getLikesCount()));
+        } finally {
+            lock.unlock();
         }
-        return true;
     }
 }
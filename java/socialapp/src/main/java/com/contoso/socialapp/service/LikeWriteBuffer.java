@@ -0,0 +1,197 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.repository.LikeRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional write-behind mode for likes. Like and unlike intents are collected per post, keeping only
+ * the latest intent of each user, and written every few milliseconds as one batched transaction.
+ * A writer that finds {@code maxPending} intents buffered flushes them first, so the buffer stays near
+ * that size; the check is not atomic with the add, so concurrent writers can each add one past it.
+ * A batch that fails to commit is put back and retried with the next flush, so while the database is
+ * failing the buffer keeps growing. Whatever is buffered can be lost if the process dies.
+ */
+@Component
+public class LikeWriteBuffer {
+    private static final Logger logger = LoggerFactory.getLogger(LikeWriteBuffer.class);
+
+    private final LikeRepository likeRepo;
+    private final PostRepository postRepo;
+    private final PostCache cache;
+    private final FeedEventHub events;
+    private final HotPosts hot;
+    private final TransactionTemplate tx;
+
+    @Value("${app.likes.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.likes.write-behind.flush-interval-ms:5}")
+    private long flushIntervalMs;
+
+    @Value("${app.likes.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    // Writers share the read lock; the flusher takes the write lock only to swap in an empty batch
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // Not a monitor: callers that flush inline may be virtual threads, which a monitor held across the write would pin
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile Batch current = new Batch();
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public LikeWriteBuffer(LikeRepository likeRepo, PostRepository postRepo, PostCache cache,
+                           FeedEventHub events, HotPosts hot, PlatformTransactionManager txManager) {
+        this.likeRepo = likeRepo;
+        this.postRepo = postRepo;
+        this.cache = cache;
+        this.events = events;
+        this.hot = hot;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "like-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher == null) return;
+        flusher.shutdown();
+        flush();
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public void like(String postId, String username) { record(postId, username, Boolean.TRUE); }
+
+    public void unlike(String postId, String username) { record(postId, username, Boolean.FALSE); }
+
+    public long pending() { return current.size.sum(); }
+
+    private void record(String postId, String username, Boolean intent) {
+        // A full buffer makes the caller flush inline, which applies backpressure. A failed flush is logged
+        // and the intent still recorded: the batch was put back, and the like itself was valid
+        if (current.size.sum() >= maxPending) flushQuietly();
+        swapLock.readLock().lock();
+        try {
+            Batch batch = current;
+            if (batch.intents.computeIfAbsent(postId, k -> new ConcurrentHashMap<>()).put(username, intent) == null) {
+                batch.size.increment();
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush buffered likes", e);
+        }
+    }
+
+    /**
+     * Writes all buffered intents in one transaction. Serialized so batches are applied in the order they were taken.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            Batch batch;
+            swapLock.writeLock().lock();
+            try {
+                batch = current;
+                if (batch.size.sum() == 0) return;
+                current = new Batch();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+
+            List<Object[]> likes = new ArrayList<>();
+            List<Object[]> unlikes = new ArrayList<>();
+            batch.intents.forEach((postId, users) -> users.forEach((username, like) -> {
+                if (like) likes.add(new Object[]{postId + "#" + username, postId, username, postId});
+                else unlikes.add(new Object[]{postId, username});
+            }));
+
+            Map<String, Integer> deltas = new HashMap<>();
+            try {
+                tx.executeWithoutResult(status -> {
+                    int[] inserted = likeRepo.insertLikesIfAbsent(likes);
+                    for (int i = 0; i < inserted.length; i++) {
+                        if (inserted[i] > 0) deltas.merge((String) likes.get(i)[1], 1, Integer::sum);
+                    }
+                    int[] deleted = likeRepo.deleteLikes(unlikes);
+                    for (int i = 0; i < deleted.length; i++) {
+                        if (deleted[i] > 0) deltas.merge((String) unlikes.get(i)[0], -1, Integer::sum);
+                    }
+                    deltas.values().removeIf(d -> d == 0);
+                    if (!deltas.isEmpty()) postRepo.adjustLikes(deltas);
+                });
+            } catch (RuntimeException e) {
+                requeue(batch);
+                throw e;
+            }
+            deltas.keySet().forEach(cache::invalidatePost);
+            deltas.forEach((postId, delta) -> hot.adjust(postId, delta, 0));
+            if (!deltas.isEmpty() && events.hasSubscribers()) {
+                // One read for the whole batch; each post's count is published once however many intents it had
+                for (PostDTO p : postRepo.findByIds(deltas.keySet())) events.likesChanged(p.getId(), p.getLikesCount());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Puts a batch whose transaction rolled back in front of the live one, so the next flush retries it.
+    // Intents recorded since the swap are newer and win over the requeued ones.
+    private void requeue(Batch failed) {
+        swapLock.readLock().lock();
+        try {
+            Batch batch = current;
+            failed.intents.forEach((postId, users) -> {
+                ConcurrentHashMap<String, Boolean> live = batch.intents.computeIfAbsent(postId, k -> new ConcurrentHashMap<>());
+                users.forEach((username, intent) -> {
+                    if (live.putIfAbsent(username, intent) == null) batch.size.increment();
+                });
+            });
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static final class Batch {
+        final ConcurrentHashMap<String, ConcurrentHashMap<String, Boolean>> intents = new ConcurrentHashMap<>();
+        final LongAdder size = new LongAdder();
+    }
+}
@@ -0,0 +1,238 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.CommentDTO;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.model.dto.PostPage;
+import com.contoso.socialapp.repository.PostRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for posts, feed pages and per-post comment lists, bounded by an estimated byte
+ * budget with W-TinyLFU eviction and a TTL as a safety net. Feed pages only hold post ids, so a like
+ * or comment invalidates the one post entry and never the pages that contain it. Invalidations are
+ * also reported to {@link ContentVersions}, which versions the HTTP responses built from these reads.
+ */
+@Component
+public class PostCache {
+    // Rough per-object overhead used by the weighers; only needs to be proportional, not exact
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final PostRepository postRepo;
+    private final ContentVersions versions;
+    private final Cache<String, PostDTO> posts;
+    private final Cache<String, FeedEntry> feeds;
+    private final Cache<String, List<CommentDTO>> comments;
+
+    @Autowired
+    public PostCache(PostRepository postRepo, ContentVersions versions,
+                     @Value("${app.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+                     @Value("${app.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.postRepo = postRepo;
+        this.versions = versions;
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        // Posts get half of the budget, comment lists and feed pages a quarter each
+        this.posts = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes / 2)
+                .weigher((String id, PostDTO p) -> weigh(p))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.comments = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes / 4)
+                .weigher((String postId, List<CommentDTO> list) -> ENTRY_OVERHEAD_BYTES + list.stream().mapToInt(PostCache::weigh).sum())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.feeds = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes / 4)
+                .weigher((String key, FeedEntry e) -> ENTRY_OVERHEAD_BYTES + e.ids.size() * ENTRY_OVERHEAD_BYTES)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Loaders run outside Caffeine's {@code get(key, loader)}, which would call them inside a
+     * ConcurrentHashMap bin lock: a virtual thread waiting there for a connection pins its carrier, and
+     * with few carriers the thread holding the connection may never be scheduled to give it back.
+     * Concurrent misses on one key may therefore both read it.
+     */
+    public Optional<PostDTO> post(String id, Function<String, Optional<PostDTO>> loader) {
+        PostDTO cached = posts.getIfPresent(id);
+        if (cached != null) return Optional.of(cached);
+        long since = versions.latest();
+        Optional<PostDTO> loaded = loader.apply(id);
+        loaded.ifPresent(p -> putIfUnchanged(posts, id, p, () -> versions.post(id), since));
+        return loaded;
+    }
+
+    /**
+     * Returns a feed page, keyed by its paging parameters. On a hit only posts that have since been
+     * invalidated are re-read, in a single statement.
+     */
+    public PostPage feed(String key, Supplier<PostPage> loader) {
+        FeedEntry entry = feeds.getIfPresent(key);
+        if (entry == null) {
+            long since = versions.latest();
+            PostPage page = loader.get();
+            List<String> ids = new ArrayList<>(page.getItems().size());
+            for (PostDTO p : page.getItems()) {
+                ids.add(p.getId());
+                putIfUnchanged(posts, p.getId(), p, () -> versions.post(p.getId()), since);
+            }
+            putIfUnchanged(feeds, key, new FeedEntry(ids, page.getNextCursor()), versions::feed, since);
+            return page;
+        }
+        Map<String, PostDTO> found = new LinkedHashMap<>(posts.getAllPresent(entry.ids));
+        if (found.size() < entry.ids.size()) {
+            List<String> missing = new ArrayList<>();
+            for (String id : entry.ids) {
+                if (!found.containsKey(id)) missing.add(id);
+            }
+            long since = versions.latest();
+            for (PostDTO p : postRepo.findByIds(missing)) {
+                found.put(p.getId(), p);
+                putIfUnchanged(posts, p.getId(), p, () -> versions.post(p.getId()), since);
+            }
+        }
+        List<PostDTO> items = new ArrayList<>(entry.ids.size());
+        for (String id : entry.ids) {
+            PostDTO p = found.get(id);
+            if (p != null) items.add(p);
+        }
+        return new PostPage(items, entry.nextCursor);
+    }
+
+    /**
+     * Caches a value read outside the cache unless the entry's own version moved past {@code since}, the
+     * latest sequence taken before the read, so writes to other posts never keep a load out. Invalidations
+     * move the version before removing entries, so either the write's removal comes after this compute and
+     * drops the value, or this compute sees the new version and keeps out.
+     */
+    private static <V> void putIfUnchanged(Cache<String, V> cache, String key, V value,
+                                           Supplier<ContentVersions.Version> version, long since) {
+        cache.asMap().compute(key, (k, current) -> version.get().getSequence() <= since ? value : current);
+    }
+
+    // Loaded outside the cache for the same reason as post()
+    public List<CommentDTO> comments(String postId, Function<String, List<CommentDTO>> loader) {
+        List<CommentDTO> cached = comments.getIfPresent(postId);
+        if (cached != null) return cached;
+        long since = versions.latest();
+        List<CommentDTO> loaded = loader.apply(postId);
+        putIfUnchanged(comments, postId, loaded, () -> versions.comments(postId), since);
+        return loaded;
+    }
+
+    // Content, like or comment-count change on one post
+    public void invalidatePost(String postId) {
+        versions.postChanged(postId);
+        posts.invalidate(postId);
+    }
+
+    /**
+     * Copies fresh view totals into the posts that are cached, reading them only for those. Views are
+     * left out of the versioning on purpose: bumping a version here would change the feed ETag on every
+     * flush. A client revalidating an unchanged post keeps the counts of the copy it already has.
+     */
+    public void refreshViews(Collection<String> postIds, Function<Collection<String>, Map<String, long[]>> loader) {
+        List<String> cached = new ArrayList<>();
+        for (String id : postIds) {
+            if (posts.getIfPresent(id) != null) cached.add(id);
+        }
+        if (cached.isEmpty()) return;
+        loader.apply(cached).forEach((id, counts) ->
+                posts.asMap().computeIfPresent(id, (k, p) -> withViews(p, counts[0], counts[1])));
+    }
+
+    public void invalidateComments(String postId) {
+        versions.commentsChanged(postId);
+        comments.invalidate(postId);
+        posts.invalidate(postId);
+    }
+
+    // A post was created or deleted, which shifts every feed page
+    public void invalidateFeed() {
+        versions.feedChanged();
+        feeds.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        versions.feedChanged();
+        posts.invalidateAll();
+        comments.invalidateAll();
+        feeds.invalidateAll();
+    }
+
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> out = new LinkedHashMap<>();
+        out.put("posts", stats(posts));
+        out.put("feeds", stats(feeds));
+        out.put("comments", stats(comments));
+        return out;
+    }
+
+    private static Map<String, Object> stats(Cache<?, ?> cache) {
+        CacheStats s = cache.stats();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("hits", s.hitCount());
+        m.put("misses", s.missCount());
+        m.put("hitRate", s.hitRate());
+        m.put("evictions", s.evictionCount());
+        m.put("evictedBytes", s.evictionWeight());
+        m.put("entries", cache.estimatedSize());
+        cache.policy().eviction().ifPresent(e -> {
+            m.put("weightedBytes", e.weightedSize().orElse(0));
+            m.put("maxBytes", e.getMaximum());
+        });
+        return m;
+    }
+
+    // Cached posts may be mid-serialization on another thread, so a refresh replaces them rather than mutating
+    private static PostDTO withViews(PostDTO p, long views, long uniqueViewers) {
+        PostDTO copy = new PostDTO();
+        copy.setId(p.getId());
+        copy.setUsername(p.getUsername());
+        copy.setContent(p.getContent());
+        copy.setCreatedAt(p.getCreatedAt());
+        copy.setUpdatedAt(p.getUpdatedAt());
+        copy.setLikesCount(p.getLikesCount());
+        copy.setCommentsCount(p.getCommentsCount());
+        copy.setViewsCount(views);
+        copy.setUniqueViewers(uniqueViewers);
+        return copy;
+    }
+
+    private static int weigh(PostDTO p) {
+        return ENTRY_OVERHEAD_BYTES + 2 * (p.getContent().length() + p.getUsername().length());
+    }
+
+    private static int weigh(CommentDTO c) {
+        return ENTRY_OVERHEAD_BYTES + 2 * (c.getContent().length() + c.getUsername().length());
+    }
+
+    private static final class FeedEntry {
+        final List<String> ids;
+        final String nextCursor;
+
+        FeedEntry(List<String> ids, String nextCursor) {
+            this.ids = ids;
+            this.nextCursor = nextCursor;
+        }
+    }
+}
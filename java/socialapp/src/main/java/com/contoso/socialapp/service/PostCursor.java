@@ -0,0 +1,47 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.exception.BadRequestException;
+import com.contoso.socialapp.model.dto.PostDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the post feed and the other newest-first lists. Encodes the (createdAt, id)
+ * of the last item returned so the next page can continue strictly after it.
+ */
+final class PostCursor {
+    private static final char SEPARATOR = '|';
+
+    private final String createdAt;
+    private final String id;
+
+    private PostCursor(String createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    String getCreatedAt() { return createdAt; }
+    String getId() { return id; }
+
+    static String encode(PostDTO last) {
+        return encode(last.getCreatedAt(), last.getId());
+    }
+
+    static String encode(String createdAt, String id) {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static PostCursor decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("The cursor parameter is invalid");
+        }
+        int sep = raw.lastIndexOf(SEPARATOR);
+        if (sep <= 0 || sep == raw.length() - 1) throw new BadRequestException("The cursor parameter is invalid");
+        return new PostCursor(raw.substring(0, sep), raw.substring(sep + 1));
+    }
+}
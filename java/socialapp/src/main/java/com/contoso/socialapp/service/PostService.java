@@ -1,43 +1,128 @@
 package com.contoso.socialapp.service;
 
+import com.contoso.socialapp.model.dto.NewPostRequest;
 import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.model.dto.PostPage;
 import com.contoso.socialapp.repository.PostRepository;
 import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.TagRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
+@Timed(value = "socialapp.service", histogram = true)
 public class PostService {
     private final PostRepository postRepo;
     private final CommentRepository commentRepo;
     private final com.contoso.socialapp.repository.LikeRepository likeRepo;
+    private final TagRepository tagRepo;
+    private final PostCache cache;
+    private final FeedEventHub events;
+    private final TrendingTags trending;
+    private final HotPosts hot;
+    private final ViewCounter views;
+    private final TransactionTemplate tx;
 
     @Autowired
-    public PostService(PostRepository postRepo, CommentRepository commentRepo, com.contoso.socialapp.repository.LikeRepository likeRepo) {
+    public PostService(PostRepository postRepo, CommentRepository commentRepo, com.contoso.socialapp.repository.LikeRepository likeRepo,
+                       TagRepository tagRepo, PostCache cache, FeedEventHub events, TrendingTags trending,
+                       HotPosts hot, ViewCounter views, PlatformTransactionManager txManager) {
         this.postRepo = postRepo;
         this.commentRepo = commentRepo;
         this.likeRepo = likeRepo;
+        this.tagRepo = tagRepo;
+        this.cache = cache;
+        this.events = events;
+        this.trending = trending;
+        this.hot = hot;
+        this.views = views;
+        this.tx = new TransactionTemplate(txManager);
     }
 
     public List<PostDTO> listPosts() {
-        List<PostDTO> posts = postRepo.findAll();
-        for (PostDTO p : posts) {
-            int comments = commentRepo.countByPostId(p.getId());
-            p.setCommentsCount(comments);
+        return cache.feed("all", () -> new PostPage(postRepo.findAll(), null)).getItems();
+    }
+
+    public PostPage listPosts(int limit, String cursor) {
+        String key = limit + ":" + (cursor == null ? "" : cursor);
+        return cache.feed(key, () -> {
+            List<PostDTO> posts;
+            if (cursor == null || cursor.isEmpty()) {
+                posts = postRepo.findPage(null, null, limit);
+            } else {
+                PostCursor after = PostCursor.decode(cursor);
+                posts = postRepo.findPage(after.getCreatedAt(), after.getId(), limit);
+            }
+            String next = posts.size() == limit ? PostCursor.encode(posts.get(posts.size() - 1)) : null;
+            return new PostPage(posts, next);
+        });
+    }
+
+    /**
+     * Keyset page of the posts carrying a hashtag or mention, newest first. Uses the same cursor format as
+     * the feed. Not cached: the tag index makes each page a bounded range read.
+     */
+    public PostPage listPostsByTag(String tag, int limit, String cursor) {
+        String key = TagExtractor.normalizeKey(tag);
+        if (key == null) return new PostPage(List.of(), null);
+        List<PostDTO> posts;
+        if (cursor == null || cursor.isEmpty()) {
+            posts = postRepo.findPageByTag(key, null, null, limit);
+        } else {
+            PostCursor after = PostCursor.decode(cursor);
+            posts = postRepo.findPageByTag(key, after.getCreatedAt(), after.getId(), limit);
+        }
+        String next = posts.size() == limit ? PostCursor.encode(posts.get(posts.size() - 1)) : null;
+        return new PostPage(posts, next);
+    }
+
+    public PostPage listPostsByUser(String username, int limit, String cursor) {
+        List<PostDTO> posts;
+        if (cursor == null || cursor.isEmpty()) {
+            posts = postRepo.findPageByUser(username, null, null, limit);
+        } else {
+            PostCursor after = PostCursor.decode(cursor);
+            posts = postRepo.findPageByUser(username, after.getCreatedAt(), after.getId(), limit);
         }
-        return posts;
+        String next = posts.size() == limit ? PostCursor.encode(posts.get(posts.size() - 1)) : null;
+        return new PostPage(posts, next);
+    }
+
+    /**
+     * Page of the hot ranking. Posts come from the post cache, so a warm first page costs no query.
+     */
+    public PostPage listHotPosts(int limit, String cursor) {
+        HotPosts.Page page = hot.page(cursor, limit);
+        List<PostDTO> posts = new ArrayList<>(page.getIds().size());
+        for (String id : page.getIds()) getPostById(id).ifPresent(posts::add);
+        return new PostPage(posts, page.getNextCursor());
     }
 
     public PostDTO createPost(String username, String content) {
         String id = UUID.randomUUID().toString();
         String now = Instant.now().toString();
-        postRepo.insertPost(id, username, content, now, now);
+        Set<String> tags = TagExtractor.extract(content);
+        if (tags.isEmpty()) {
+            postRepo.insertPost(id, username, content, now, now);
+        } else {
+            tx.executeWithoutResult(status -> {
+                postRepo.insertPost(id, username, content, now, now);
+                tagRepo.addRefs(id, tags);
+            });
+            trending.record(tags);
+        }
+        cache.invalidateFeed();
         PostDTO p = new PostDTO();
         p.setId(id);
         p.setUsername(username);
@@ -46,22 +131,55 @@ public class PostService {
         p.setUpdatedAt(now);
         p.setLikesCount(0);
         p.setCommentsCount(0);
+        hot.added(p);
+        events.publish("post.created", id, p);
         return p;
     }
 
+    /**
+     * Inserts all posts with one batched statement in a single transaction; returns them in request order.
+     */
+    public List<PostDTO> createPosts(List<NewPostRequest> requests) {
+        String now = Instant.now().toString();
+        List<PostDTO> created = new ArrayList<>(requests.size());
+        List<Object[]> rows = new ArrayList<>(requests.size());
+        List<Object[]> tagRows = new ArrayList<>();
+        List<String> used = new ArrayList<>();
+        for (NewPostRequest req : requests) {
+            PostDTO p = new PostDTO();
+            p.setId(UUID.randomUUID().toString());
+            p.setUsername(req.getUsername());
+            p.setContent(req.getContent());
+            p.setCreatedAt(now);
+            p.setUpdatedAt(now);
+            created.add(p);
+            rows.add(new Object[]{p.getId(), p.getUsername(), p.getContent(), now, now});
+            for (String tag : TagExtractor.extract(p.getContent())) {
+                tagRows.add(new Object[]{tag, p.getId()});
+                used.add(tag);
+            }
+        }
+        if (rows.isEmpty()) return created;
+        tx.executeWithoutResult(status -> {
+            postRepo.insertPosts(rows);
+            tagRepo.addRefs(tagRows);
+        });
+        trending.record(used);
+        cache.invalidateFeed();
+        for (PostDTO p : created) {
+            hot.added(p);
+            events.publish("post.created", p.getId(), p);
+        }
+        return created;
+    }
+
     public Optional<PostDTO> getPostById(String id) {
-        Optional<Map<String, Object>> row = postRepo.findPostRow(id);
-        if (row.isEmpty()) return Optional.empty();
-        Map<String, Object> m = row.get();
-        PostDTO p = new PostDTO();
-        p.setId((String)m.get("id"));
-        p.setUsername((String)m.get("username"));
-        p.setContent((String)m.get("content"));
-        p.setCreatedAt((String)m.get("created_at"));
-        p.setUpdatedAt((String)m.get("updated_at"));
-        p.setLikesCount((Integer)m.get("likes"));
-        p.setCommentsCount(commentRepo.countByPostId(id));
-        return Optional.of(p);
+        return cache.post(id, postRepo::findById);
+    }
+
+    // Counted in memory; viewsCount and uniqueViewers catch up after the next flush
+    public void recordView(String postId, String viewer) {
+        views.record(postId, viewer);
     }
 
     public Optional<PostDTO> updatePost(String id, String username, String content) {
@@ -70,8 +188,29 @@ public class PostService {
         Map<String, Object> m = row.get();
         if (!((String)m.get("username")).equals(username)) return Optional.empty();
         String updatedAt = Instant.now().toString();
-        postRepo.updatePostContent(id, content, updatedAt);
-        return getPostById(id);
+        // Only the difference is applied so tags that comments contributed to this post keep their refs
+        Set<String> before = TagExtractor.extract((String) m.get("content"));
+        Set<String> after = TagExtractor.extract(content);
+        Set<String> added = TagExtractor.difference(after, before);
+        Set<String> removed = TagExtractor.difference(before, after);
+        if (added.isEmpty() && removed.isEmpty()) {
+            postRepo.updatePostContent(id, content, updatedAt);
+        } else {
+            tx.executeWithoutResult(status -> {
+                postRepo.updatePostContent(id, content, updatedAt);
+                tagRepo.removeRefs(id, removed);
+                tagRepo.addRefs(id, added);
+            });
+            trending.record(added);
+        }
+        cache.invalidatePost(id);
+        Optional<PostDTO> updated = getPostById(id);
+        updated.ifPresent(p -> events.publish("post.updated", id, p));
+        return updated;
+    }
+
+    public boolean postExists(String id) {
+        return postRepo.exists(id);
     }
 
     public boolean deletePost(String id) {
@@ -81,6 +220,12 @@ public class PostService {
         postRepo.deletePost(id);
         commentRepo.deleteByPostId(id);
         likeRepo.deleteByPostId(id);
+        tagRepo.deleteByPostId(id);
+        hot.removed(id);
+        views.forget(id);
+        cache.invalidateComments(id);
+        cache.invalidateFeed();
+        events.publish("post.deleted", id, Map.of("id", id));
         return true;
     }
 }
@@ -0,0 +1,256 @@
+package com.contoso.socialapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ready-to-send JSON response bodies, plain and gzipped, kept outside the Java heap. One direct buffer of
+ * {@code maxBytes} is split into segments that are filled in turn like a log; when the last one is full
+ * the oldest is recycled and every entry in it is dropped. Entries are tagged with the {@link ContentVersions}
+ * ETag they were built for and are only served while that is still the current version, so no explicit
+ * invalidation is needed. A hit copies the bytes into a pooled scratch array for the servlet stream, which
+ * replaces a row read, a PostDTO and a Jackson pass with a single memory copy.
+ */
+@Component
+public class ResponseBodyCache {
+    private static final int SCRATCH_BYTES = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final ByteBuffer arena;
+    private final Segment[] segments;
+    private final int segmentBytes;
+    private final ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ArrayBlockingQueue<byte[]> scratch;
+    private int current;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public ResponseBodyCache(ObjectMapper objectMapper,
+                             @Value("${app.cache.bodies.enabled:true}") boolean enabled,
+                             @Value("${app.cache.bodies.max-bytes:33554432}") int maxBytes,
+                             @Value("${app.cache.bodies.segments:16}") int segmentCount) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled && maxBytes > 0;
+        this.segmentBytes = this.enabled ? maxBytes / segmentCount : 0;
+        this.arena = ByteBuffer.allocateDirect(segmentBytes * segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) segments[i] = new Segment(i * segmentBytes);
+        this.scratch = new ArrayBlockingQueue<>(Math.max(2, 2 * Runtime.getRuntime().availableProcessors()));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static String postKey(String postId) {
+        return "post:" + postId;
+    }
+
+    /**
+     * Copies the body stored under {@code key} for {@code etag} into a scratch array, or returns null when it is
+     * missing, built for an older version, or its segment was recycled during the copy. Close the hit to
+     * return the array to the pool.
+     */
+    public Hit get(String key, String etag, boolean gzip) {
+        Entry e = index.get(key);
+        if (e == null) {
+            misses.increment();
+            return null;
+        }
+        if (!e.etag.equals(etag)) {
+            index.remove(key, e);
+            stale.increment();
+            return null;
+        }
+        int offset = gzip ? e.gzipOffset : e.offset;
+        int length = gzip ? e.gzipLength : e.length;
+        byte[] buf = borrow(length);
+        Segment segment = segments[e.segment];
+        long stamp = segment.lock.tryOptimisticRead();
+        boolean live = segment.generation == e.generation;
+        if (live) arena.get(offset, buf, 0, length);
+        if (!live || !segment.lock.validate(stamp)) {
+            index.remove(key, e);
+            release(buf);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new Hit(buf, length, gzip, e.nextCursor);
+    }
+
+    /**
+     * Serializes {@code body} once and stores it with its gzip form under {@code key}. The etag must be the
+     * version read before the body was loaded, so a write that races with the load leaves a stale entry
+     * that is never served.
+     */
+    public void put(String key, String etag, Object body, String nextCursor) {
+        if (!enabled) return;
+        byte[] json;
+        byte[] gzipped;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+            gzipped = gzip(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int total = json.length + gzipped.length;
+        if (total > segmentBytes) {
+            rejected.increment();
+            return;
+        }
+        appendLock.lock();
+        try {
+            Segment segment = segments[current];
+            if (segment.used + total > segmentBytes) segment = advance();
+            int offset = segment.start + segment.used;
+            arena.put(offset, json);
+            arena.put(offset + json.length, gzipped);
+            segment.used += total;
+            index.put(key, new Entry(etag, current, segment.generation, offset, json.length,
+                    offset + json.length, gzipped.length, nextCursor));
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // For changes that do not move the ETag, such as flushed view counts; the bytes stay until their segment is recycled
+    public void invalidate(String key) {
+        index.remove(key);
+    }
+
+    public void clear() {
+        appendLock.lock();
+        try {
+            index.clear();
+            for (Segment s : segments) recycle(s);
+            current = 0;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long h = hits.sum();
+        long lookups = h + misses.sum() + stale.sum();
+        long used = 0;
+        for (Segment s : segments) used += s.used;
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("hits", h);
+        m.put("misses", misses.sum());
+        m.put("stale", stale.sum());
+        m.put("hitRate", lookups == 0 ? 0.0 : (double) h / lookups);
+        m.put("evictions", evictions.sum());
+        m.put("rejected", rejected.sum());
+        m.put("entries", index.size());
+        m.put("usedBytes", used);
+        m.put("maxBytes", (long) segmentBytes * segments.length);
+        return m;
+    }
+
+    // Called with appendLock held: moves to the next segment and drops everything written there before
+    private Segment advance() {
+        current = (current + 1) % segments.length;
+        Segment segment = segments[current];
+        long generation = segment.generation;
+        int slot = current;
+        int before = index.size();
+        index.values().removeIf(e -> e.segment == slot && e.generation == generation);
+        evictions.add(Math.max(0, before - index.size()));
+        recycle(segment);
+        return segment;
+    }
+
+    private static void recycle(Segment segment) {
+        long stamp = segment.lock.writeLock();
+        try {
+            segment.generation++;
+            segment.used = 0;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    private byte[] borrow(int length) {
+        if (length > SCRATCH_BYTES) return new byte[length];
+        byte[] buf = scratch.poll();
+        return buf != null ? buf : new byte[SCRATCH_BYTES];
+    }
+
+    private void release(byte[] buf) {
+        if (buf.length == SCRATCH_BYTES) scratch.offer(buf);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 32);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Segment {
+        final int start;
+        final StampedLock lock = new StampedLock();
+        // Both only change with appendLock held; generation also under the write lock so readers can validate
+        volatile long generation;
+        volatile int used;
+
+        Segment(int start) {
+            this.start = start;
+        }
+    }
+
+    private record Entry(String etag, int segment, long generation, int offset, int length,
+                         int gzipOffset, int gzipLength, String nextCursor) {
+    }
+
+    /**
+     * A body copied out of the cache; valid until closed.
+     */
+    public final class Hit implements AutoCloseable {
+        private final byte[] bytes;
+        private final int length;
+        private final boolean gzip;
+        private final String nextCursor;
+
+        Hit(byte[] bytes, int length, boolean gzip, String nextCursor) {
+            this.bytes = bytes;
+            this.length = length;
+            this.gzip = gzip;
+            this.nextCursor = nextCursor;
+        }
+
+        public byte[] bytes() { return bytes; }
+        public int length() { return length; }
+        public boolean isGzip() { return gzip; }
+        public String nextCursor() { return nextCursor; }
+
+        @Override
+        public void close() {
+            release(bytes);
+        }
+    }
+}
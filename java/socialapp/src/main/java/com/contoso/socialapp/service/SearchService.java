@@ -0,0 +1,87 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.exception.BadRequestException;
+import com.contoso.socialapp.model.dto.SearchHit;
+import com.contoso.socialapp.model.dto.SearchPage;
+import com.contoso.socialapp.repository.SearchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+// FTS5 lives in SQLite, so search is only served by the jdbc engine
+@Service
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+public class SearchService {
+    private static final int MAX_TERMS = 16;
+
+    private final SearchRepository searchRepo;
+
+    @Autowired
+    public SearchService(SearchRepository searchRepo) {
+        this.searchRepo = searchRepo;
+    }
+
+    public SearchPage search(String q, int limit, String cursor) {
+        String match = toMatchExpression(q);
+        SearchRepository.Row after = cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor);
+        List<SearchRepository.Row> rows = searchRepo.search(match, after, limit);
+        List<SearchHit> hits = new ArrayList<>(rows.size());
+        for (SearchRepository.Row row : rows) {
+            SearchHit h = row.getHit();
+            h.setSnippet(highlight(h.getSnippet()));
+            hits.add(h);
+        }
+        String next = rows.size() == limit ? encodeCursor(rows.get(rows.size() - 1)) : null;
+        return new SearchPage(hits, next);
+    }
+
+    /**
+     * Turns free text into an FTS5 expression that cannot be a syntax error: every whitespace-separated
+     * term becomes a quoted phrase, all of which must match, and a trailing '*' keeps prefix search.
+     */
+    static String toMatchExpression(String q) {
+        if (q == null || q.isBlank()) throw new BadRequestException("The q parameter is required");
+        List<String> terms = new ArrayList<>();
+        for (String raw : q.trim().split("\\s+")) {
+            boolean prefix = raw.endsWith("*");
+            String term = prefix ? raw.substring(0, raw.length() - 1) : raw;
+            if (term.isEmpty()) continue;
+            terms.add("\"" + term.replace("\"", "\"\"") + "\"" + (prefix ? "*" : ""));
+            if (terms.size() == MAX_TERMS) break;
+        }
+        if (terms.isEmpty()) throw new BadRequestException("The q parameter must contain a search term");
+        return String.join(" ", terms);
+    }
+
+    // Escapes the stored text and only then turns the match markers into <mark> tags
+    static String highlight(String snippet) {
+        if (snippet == null) return null;
+        return HtmlUtils.htmlEscape(snippet)
+                .replace(SearchRepository.MATCH_START, "<mark>")
+                .replace(SearchRepository.MATCH_END, "</mark>");
+    }
+
+    private static String encodeCursor(SearchRepository.Row last) {
+        String raw = last.getHit().getScore() + "|" + last.getHit().getType() + "|" + last.getRowid();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SearchRepository.Row decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) throw new IllegalArgumentException("expected three fields");
+            SearchHit h = new SearchHit();
+            h.setScore(Double.parseDouble(parts[0]));
+            h.setType(parts[1]);
+            return new SearchRepository.Row(h, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("The cursor parameter is invalid");
+        }
+    }
+}
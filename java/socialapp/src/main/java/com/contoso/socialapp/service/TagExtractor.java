@@ -0,0 +1,60 @@
+package com.contoso.socialapp.service;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pulls #hashtags and @mentions out of post and comment text. Keys are lower-cased; hashtags are stored
+ * without the '#' and mentions keep their '@' so both live in one index without colliding.
+ */
+final class TagExtractor {
+    static final int MAX_TAGS = 32;
+
+    // The lookbehind keeps e-mail addresses and "a#b" out; letters and digits in any script are allowed
+    private static final Pattern TAG = Pattern.compile("(?<![\\p{L}\\p{N}_#@])([#@])([\\p{L}\\p{N}_]{1,64})");
+
+    private TagExtractor() {
+    }
+
+    static Set<String> extract(String content) {
+        if (content == null || (content.indexOf('#') < 0 && content.indexOf('@') < 0)) return Collections.emptySet();
+        Set<String> keys = new LinkedHashSet<>();
+        Matcher m = TAG.matcher(content);
+        while (m.find() && keys.size() < MAX_TAGS) {
+            keys.add(normalize(m.group(1).charAt(0), m.group(2)));
+        }
+        return keys;
+    }
+
+    /**
+     * Accepts "java", "#java" or "@alice" as typed in a URL and returns the index key, or null when it
+     * cannot be a tag.
+     */
+    static String normalizeKey(String raw) {
+        if (raw == null || raw.isEmpty()) return null;
+        char first = raw.charAt(0);
+        String key = first == '#' || first == '@' ? normalize(first, raw.substring(1)) : normalize('#', raw);
+        return TAG.matcher((isMention(key) ? "" : "#") + key).matches() ? key : null;
+    }
+
+    // Keys in a that are not in b; used to apply only what an edit changed
+    static Set<String> difference(Set<String> a, Set<String> b) {
+        if (b.isEmpty()) return a;
+        Set<String> result = new LinkedHashSet<>(a);
+        result.removeAll(b);
+        return result;
+    }
+
+    static boolean isMention(String key) {
+        return key.startsWith("@");
+    }
+
+    private static String normalize(char marker, String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return marker == '@' ? "@" + lower : lower;
+    }
+}
@@ -0,0 +1,223 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.TrendingTag;
+import com.contoso.socialapp.repository.TagRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sliding-window hashtag counters. Each use lands in the current minute and hour bucket and in running
+ * totals for the last hour and the last 24 hours; buckets that fall out of a window are subtracted again,
+ * so a trending query only ranks the totals and never touches the posts table. The 24h window moves in
+ * whole hours. Buckets changed since the last checkpoint are written to trending_buckets in the background
+ * and reloaded on startup, so a restart loses at most one checkpoint interval of counts.
+ */
+@Component
+public class TrendingTags {
+    private static final Logger logger = LoggerFactory.getLogger(TrendingTags.class);
+
+    static final String MINUTES = "m";
+    static final String HOURS = "h";
+    private static final int MINUTES_PER_WINDOW = 60;
+    private static final int HOURS_PER_WINDOW = 24;
+    private static final long MINUTE_MS = 60_000L;
+    private static final long HOUR_MS = 60 * MINUTE_MS;
+
+    private static final Comparator<Map.Entry<String, Long>> RANK =
+            Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+
+    private final TagRepository tagRepo;
+    private final TransactionTemplate tx;
+    private final long checkpointSeconds;
+
+    private final ArrayDeque<Bucket> minutes = new ArrayDeque<>();
+    private final ArrayDeque<Bucket> hours = new ArrayDeque<>();
+    private final Map<String, Long> lastHour = new HashMap<>();
+    private final Map<String, Long> lastDay = new HashMap<>();
+    private ScheduledExecutorService checkpointer;
+
+    @Autowired
+    public TrendingTags(TagRepository tagRepo, PlatformTransactionManager txManager,
+                        @Value("${app.tags.trending.checkpoint-seconds:60}") long checkpointSeconds) {
+        this.tagRepo = tagRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.checkpointSeconds = checkpointSeconds;
+    }
+
+    @PostConstruct
+    void start() {
+        restore(System.currentTimeMillis());
+        if (checkpointSeconds <= 0) return;
+        checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "trending-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        checkpointer.scheduleWithFixedDelay(this::checkpointQuietly, checkpointSeconds, checkpointSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (checkpointer == null) return;
+        checkpointer.shutdown();
+        checkpointQuietly();
+    }
+
+    /**
+     * Counts one use of every hashtag in {@code keys}; mentions are ignored.
+     */
+    public void record(Collection<String> keys) {
+        if (!keys.isEmpty()) record(keys, System.currentTimeMillis());
+    }
+
+    public List<TrendingTag> top(boolean lastDayWindow, int limit) {
+        return top(lastDayWindow, limit, System.currentTimeMillis());
+    }
+
+    synchronized void record(Collection<String> keys, long nowMs) {
+        advance(nowMs);
+        Bucket minute = current(minutes, nowMs / MINUTE_MS);
+        Bucket hour = current(hours, nowMs / HOUR_MS);
+        for (String key : keys) {
+            if (TagExtractor.isMention(key)) continue;
+            minute.add(key, 1);
+            hour.add(key, 1);
+            lastHour.merge(key, 1L, Long::sum);
+            lastDay.merge(key, 1L, Long::sum);
+        }
+    }
+
+    synchronized List<TrendingTag> top(boolean lastDayWindow, int limit, long nowMs) {
+        advance(nowMs);
+        Map<String, Long> totals = lastDayWindow ? lastDay : lastHour;
+        // Min-heap of the best `limit` entries; ties go to the alphabetically first tag
+        PriorityQueue<Map.Entry<String, Long>> best = new PriorityQueue<>(limit + 1, RANK);
+        for (Map.Entry<String, Long> e : totals.entrySet()) {
+            best.add(e);
+            if (best.size() > limit) best.poll();
+        }
+        List<TrendingTag> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Map.Entry<String, Long> e = best.poll();
+            result.add(new TrendingTag(e.getKey(), e.getValue()));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            logger.error("Failed to checkpoint trending tags", e);
+        }
+    }
+
+    /**
+     * Writes every bucket changed since the previous checkpoint and prunes expired ones.
+     */
+    void checkpoint(long nowMs) {
+        List<Object[]> buckets = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        List<Bucket> written = new ArrayList<>();
+        synchronized (this) {
+            advance(nowMs);
+            collectDirty(MINUTES, minutes, buckets, rows, written);
+            collectDirty(HOURS, hours, buckets, rows, written);
+        }
+        long minuteFloor = nowMs / MINUTE_MS - MINUTES_PER_WINDOW + 1;
+        long hourFloor = nowMs / HOUR_MS - HOURS_PER_WINDOW + 1;
+        try {
+            tx.executeWithoutResult(status -> {
+                if (!buckets.isEmpty()) tagRepo.replaceBuckets(buckets, rows);
+                tagRepo.deleteBucketsBefore(MINUTES, minuteFloor);
+                tagRepo.deleteBucketsBefore(HOURS, hourFloor);
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                for (Bucket b : written) b.dirty = true;
+            }
+            throw e;
+        }
+    }
+
+    private synchronized void restore(long nowMs) {
+        tagRepo.loadBuckets(MINUTES, nowMs / MINUTE_MS - MINUTES_PER_WINDOW + 1, rs -> {
+            current(minutes, rs.getLong("bucket_start")).counts.put(rs.getString("tag"), rs.getLong("count"));
+            lastHour.merge(rs.getString("tag"), rs.getLong("count"), Long::sum);
+        });
+        tagRepo.loadBuckets(HOURS, nowMs / HOUR_MS - HOURS_PER_WINDOW + 1, rs -> {
+            current(hours, rs.getLong("bucket_start")).counts.put(rs.getString("tag"), rs.getLong("count"));
+            lastDay.merge(rs.getString("tag"), rs.getLong("count"), Long::sum);
+        });
+        for (Bucket b : minutes) b.dirty = false;
+        for (Bucket b : hours) b.dirty = false;
+    }
+
+    private void collectDirty(String granularity, ArrayDeque<Bucket> deque, List<Object[]> buckets,
+                              List<Object[]> rows, List<Bucket> written) {
+        for (Bucket b : deque) {
+            if (!b.dirty) continue;
+            b.dirty = false;
+            written.add(b);
+            buckets.add(new Object[]{granularity, b.start});
+            b.counts.forEach((tag, count) -> rows.add(new Object[]{granularity, b.start, tag, count}));
+        }
+    }
+
+    private void advance(long nowMs) {
+        expire(minutes, nowMs / MINUTE_MS - MINUTES_PER_WINDOW, lastHour);
+        expire(hours, nowMs / HOUR_MS - HOURS_PER_WINDOW, lastDay);
+    }
+
+    private static void expire(ArrayDeque<Bucket> deque, long lastExpired, Map<String, Long> totals) {
+        while (!deque.isEmpty() && deque.peekFirst().start <= lastExpired) {
+            Bucket old = deque.pollFirst();
+            old.counts.forEach((tag, count) -> totals.computeIfPresent(tag, (k, v) -> v - count > 0 ? v - count : null));
+        }
+    }
+
+    // Buckets are appended in time order; a clock that steps backwards keeps counting into the newest one
+    private static Bucket current(ArrayDeque<Bucket> deque, long start) {
+        Bucket last = deque.peekLast();
+        if (last != null && last.start >= start) return last;
+        Bucket b = new Bucket(start);
+        deque.addLast(b);
+        return b;
+    }
+
+    private static final class Bucket {
+        final long start;
+        final Map<String, Long> counts = new HashMap<>();
+        boolean dirty;
+
+        Bucket(long start) {
+            this.start = start;
+        }
+
+        void add(String tag, long n) {
+            counts.merge(tag, n, Long::sum);
+            dirty = true;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.repository.ViewRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts post views off the request path. A view bumps a LongAdder and offers the viewer to the post's
+ * HyperLogLog sketch, neither of which takes a lock; a background flush writes the view deltas, the
+ * sketches that changed and their estimates in one transaction. Unflushed views, at most one interval's
+ * worth, are lost if the process dies. Flushed totals are copied into cached posts, and the cached response
+ * bodies of those posts are dropped, without moving any content version, so views never invalidate an ETag.
+ */
+@Component
+public class ViewCounter {
+    private static final Logger logger = LoggerFactory.getLogger(ViewCounter.class);
+
+    private final ViewRepository viewRepo;
+    private final PostCache cache;
+    private final ResponseBodyCache bodies;
+    private final TransactionTemplate tx;
+    private final long flushIntervalMs;
+
+    private final ConcurrentHashMap<String, Tally> tallies = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public ViewCounter(ViewRepository viewRepo, PostCache cache, ResponseBodyCache bodies, PlatformTransactionManager txManager,
+                       @Value("${app.views.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.viewRepo = viewRepo;
+        this.cache = cache;
+        this.bodies = bodies;
+        this.tx = new TransactionTemplate(txManager);
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    @PostConstruct
+    void start() {
+        if (flushIntervalMs <= 0) return;
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "view-counter-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher == null) return;
+        flusher.shutdown();
+        flushQuietly();
+    }
+
+    public void record(String postId, String viewer) {
+        Tally t = tallies.get(postId);
+        if (t == null) t = tallies.computeIfAbsent(postId, k -> new Tally());
+        t.views.increment();
+        if (viewer != null && t.viewers.add(viewer)) t.dirty = true;
+    }
+
+    // Drops the unflushed views and the stored sketch of a deleted post
+    public void forget(String postId) {
+        tallies.remove(postId);
+        viewRepo.deleteByPostId(postId);
+    }
+
+    public int tracked() {
+        return tallies.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush post views", e);
+        }
+    }
+
+    /**
+     * Writes everything recorded since the previous flush. Posts with no new views are dropped from memory.
+     */
+    public synchronized void flush() {
+        List<String> ids = new ArrayList<>();
+        List<Tally> changed = new ArrayList<>();
+        List<String> unloaded = new ArrayList<>();
+        for (Map.Entry<String, Tally> e : tallies.entrySet()) {
+            Tally t = e.getValue();
+            if (t.views.sum() == t.flushed && !t.dirty) {
+                evict(e.getKey(), t);
+                continue;
+            }
+            ids.add(e.getKey());
+            changed.add(t);
+            if (t.dirty && !t.loaded) unloaded.add(e.getKey());
+        }
+        if (ids.isEmpty()) return;
+
+        // A sketch restarts empty in every process, so fold in what earlier runs persisted before writing it back
+        Map<String, byte[]> persisted = viewRepo.findSketches(unloaded);
+        List<Object[]> views = new ArrayList<>();
+        List<Object[]> sketches = new ArrayList<>();
+        long[] totals = new long[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            Tally t = changed.get(i);
+            totals[i] = t.views.sum();
+            if (totals[i] != t.flushed) views.add(new Object[]{totals[i] - t.flushed, ids.get(i)});
+            if (!t.dirty) continue;
+            if (!t.loaded) {
+                t.viewers.merge(persisted.get(ids.get(i)));
+                t.loaded = true;
+            }
+            t.dirty = false;
+            sketches.add(new Object[]{t.viewers.toBytes(), t.viewers.estimate(), ids.get(i)});
+        }
+        try {
+            tx.executeWithoutResult(status -> {
+                viewRepo.addViews(views);
+                viewRepo.saveSketches(sketches);
+            });
+        } catch (RuntimeException e) {
+            for (Tally t : changed) t.dirty = true;
+            throw e;
+        }
+        for (int i = 0; i < ids.size(); i++) changed.get(i).flushed = totals[i];
+        // Only this thread writes the counters, so totals read back after the commit stay current until the next flush
+        cache.refreshViews(ids, viewRepo::findCounts);
+        // Serialized bodies still carry the old counts under an unchanged ETag; the next read rebuilds them
+        for (String id : ids) bodies.invalidate(ResponseBodyCache.postKey(id));
+    }
+
+    private void evict(String postId, Tally t) {
+        if (!tallies.remove(postId, t)) return;
+        // A view can land between the idle check and the removal; hand it to whichever tally is current
+        long late = t.views.sum() - t.flushed;
+        if (late == 0 && !t.dirty) return;
+        Tally current = tallies.computeIfAbsent(postId, k -> new Tally());
+        current.views.add(late);
+        if (t.dirty) {
+            current.viewers.merge(t.viewers.toBytes());
+            current.dirty = true;
+        }
+    }
+
+    private static final class Tally {
+        final LongAdder views = new LongAdder();
+        final HyperLogLog viewers = new HyperLogLog();
+        // Only touched by the flusher
+        long flushed;
+        boolean loaded;
+        volatile boolean dirty;
+    }
+}
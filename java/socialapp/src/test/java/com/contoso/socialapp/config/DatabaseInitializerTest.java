@@ -0,0 +1,53 @@
+package com.contoso.socialapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-migration-test.db",
+        "app.database.mode=persistent"
+})
+class DatabaseInitializerTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private DatabaseInitializer initializer;
+
+    @Test
+    void persistentModeKeepsDataAndIsAtLatestVersion() {
+        jdbc.update("INSERT OR REPLACE INTO posts (id, username, content, created_at, updated_at, likes, likes_by) "
+                + "VALUES ('keep', 'u', 'c', '2024-01-01T00:00:00Z', '2024-01-01T00:00:00Z', 0, '[]')");
+
+        new DatabaseInitializer(jdbc, txManager, "persistent").init();
+
+        assertEquals(DatabaseInitializer.MIGRATIONS.size(), initializer.currentVersion());
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM posts WHERE id = 'keep'", Integer.class));
+    }
+
+    @Test
+    void migrationsCreateTheQueryIndexes() {
+        List<String> indexes = jdbc.queryForList("SELECT name FROM sqlite_master WHERE type = 'index'", String.class);
+        assertTrue(indexes.containsAll(List.of("idx_posts_created_at_id", "idx_comments_post_id_created_at",
+                "idx_likes_post_id_username", "idx_posts_username_created_at", "idx_comments_username_created_at")));
+    }
+
+    @Test
+    void versionsAreStrictlyIncreasing() {
+        for (int i = 0; i < DatabaseInitializer.MIGRATIONS.size(); i++) {
+            assertEquals(i + 1, DatabaseInitializer.MIGRATIONS.get(i).version);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.contoso.socialapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTimeoutException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GatedDataSourceTest {
+
+    private static GatedDataSource gate(int permits, long timeoutMs) {
+        SQLiteDataSource target = new SQLiteDataSource();
+        target.setUrl("jdbc:sqlite::memory:");
+        return new GatedDataSource("test", target, permits, timeoutMs);
+    }
+
+    @Test
+    void permitIsHeldUntilTheConnectionIsClosed() throws Exception {
+        GatedDataSource ds = gate(1, 50);
+        Connection first = ds.getConnection();
+        assertThrows(SQLTimeoutException.class, ds::getConnection);
+
+        first.close();
+        first.close();
+        try (Connection second = ds.getConnection()) {
+            assertEquals(1, ds.stats().get("inUse"));
+        }
+
+        Map<String, Object> stats = ds.stats();
+        assertEquals(0, stats.get("inUse"));
+        assertEquals(2L, stats.get("acquired"));
+        assertEquals(1L, stats.get("timeouts"));
+    }
+
+    @Test
+    void waitersAreReleasedInOrder() throws Exception {
+        GatedDataSource ds = gate(1, 5_000);
+        Connection held = ds.getConnection();
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try (Connection c = ds.getConnection()) {
+                c.createStatement().execute("SELECT 1");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (ds.stats().get("queued").equals(0)) Thread.sleep(1);
+        held.close();
+        waiter.join();
+        assertEquals(2L, ds.stats().get("acquired"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.contoso.socialapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlTracerTest {
+
+    @Test
+    void fingerprintCollapsesLiteralsAndPlaceholderLists() {
+        assertEquals("SELECT * FROM posts WHERE id IN (?+) AND username = ? LIMIT ?",
+                SqlTracer.fingerprint("SELECT *\n  FROM posts WHERE id IN (?, ?,?) AND username = 'o''brien' LIMIT 20"));
+        assertEquals(SqlTracer.fingerprint("SELECT x FROM t WHERE id IN (?,?)"),
+                SqlTracer.fingerprint("SELECT x FROM t WHERE id IN (?,?,?,?)"));
+        assertEquals("INSERT INTO t1 (a) VALUES (?), ...", SqlTracer.fingerprint("INSERT INTO t1 (a) VALUES (?), (?), (?)"));
+    }
+
+    @Test
+    void statementsAreTimedWithRowsAndSortedByTotalTime() throws Exception {
+        File file = File.createTempFile("socialapp-trace", ".db");
+        file.deleteOnExit();
+        SQLiteDataSource target = new SQLiteDataSource();
+        target.setUrl("jdbc:sqlite:" + file.getPath());
+        SqlTracer tracer = new SqlTracer(0, 100);
+        JdbcTemplate jdbc = new JdbcTemplate(new TracingDataSource(target, tracer));
+
+        jdbc.execute("CREATE TABLE t (id INTEGER PRIMARY KEY, name TEXT)");
+        jdbc.batchUpdate("INSERT INTO t (id, name) VALUES (?, ?)", List.of(new Object[]{1, "a"}, new Object[]{2, "b"}, new Object[]{3, "c"}));
+        for (int i = 0; i < 5; i++) jdbc.queryForList("SELECT name FROM t WHERE id > ?", String.class, 0);
+        jdbc.queryForList("SELECT name FROM t WHERE id IN (?, ?)", String.class, 1, 2);
+
+        List<Map<String, Object>> stats = tracer.stats(10);
+        Map<String, Object> scan = stats.stream()
+                .filter(m -> m.get("fingerprint").equals("SELECT name FROM t WHERE id > ?")).findFirst().orElseThrow();
+        assertEquals(5L, scan.get("count"));
+        assertEquals(15L, scan.get("rows"));
+        assertEquals(3L, scan.get("maxRows"));
+        Map<String, Object> insert = stats.stream()
+                .filter(m -> m.get("fingerprint").equals("INSERT INTO t (id, name) VALUES (?, ?)")).findFirst().orElseThrow();
+        assertEquals(1L, insert.get("count"));
+        assertEquals(3L, insert.get("rows"));
+        for (int i = 1; i < stats.size(); i++) {
+            assertTrue((double) stats.get(i - 1).get("totalMs") >= (double) stats.get(i).get("totalMs"));
+        }
+        Map<String, Object> any = stats.get(0);
+        assertTrue((double) any.get("p50Ms") <= (double) any.get("p99Ms"));
+        assertTrue((double) any.get("p99Ms") <= (double) any.get("maxMs"));
+    }
+}
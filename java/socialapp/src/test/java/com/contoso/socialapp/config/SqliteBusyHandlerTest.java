@@ -0,0 +1,39 @@
+package com.contoso.socialapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteBusyHandlerTest {
+
+    @Test
+    void retriesAreCountedUntilTheTimeoutRunsOut() throws Exception {
+        File file = File.createTempFile("socialapp-busy", ".db");
+        file.deleteOnExit();
+        SQLiteDataSource ds = new SQLiteDataSource();
+        ds.setUrl("jdbc:sqlite:" + file.getPath());
+        SqliteBusyHandler handler = new SqliteBusyHandler("test", 100);
+
+        try (Connection holder = ds.getConnection(); Connection waiter = ds.getConnection()) {
+            try (Statement s = holder.createStatement()) {
+                s.execute("CREATE TABLE t (x INTEGER)");
+                s.execute("BEGIN EXCLUSIVE");
+            }
+            handler.install(waiter);
+            try (Statement s = waiter.createStatement()) {
+                assertThrows(SQLException.class, () -> s.execute("INSERT INTO t VALUES (1)"));
+            }
+        }
+
+        assertTrue(handler.retries() > 1);
+        assertEquals(1, handler.exhausted());
+    }
+}
@@ -0,0 +1,46 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-metrics-test.db")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Test
+    void scrapeAttributesLatencyToEndpointServiceAndRepository() throws Exception {
+        PostDTO p = postService.createPost("user", "post");
+        mvc.perform(get("/api/posts/" + p.getId())).andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/api/posts/{postId}\"")))
+                .andExpect(content().string(containsString("socialapp_service_seconds_bucket{")))
+                .andExpect(content().string(containsString("class=\"com.contoso.socialapp.service.PostService\"")))
+                .andExpect(content().string(containsString("socialapp_repository_seconds_bucket{")))
+                .andExpect(content().string(containsString("class=\"com.contoso.socialapp.repository.JdbcPostRepository\"")))
+                .andExpect(content().string(containsString("sqlite_connections_active{")))
+                .andExpect(content().string(containsString("sqlite_connections_wait_seconds_count{")))
+                .andExpect(content().string(containsString("sqlite_busy_retries_total{")))
+                .andExpect(content().string(containsString("socialapp_likes_write_pending")));
+    }
+}
@@ -0,0 +1,71 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-batch-test.db")
+@AutoConfigureMockMvc
+class PostControllerBatchTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Test
+    void postBatchReportsEachItemAndCreatesTheValidOnes() throws Exception {
+        int before = postService.listPosts().size();
+        mvc.perform(post("/api/posts:batch").contentType(MediaType.APPLICATION_JSON).content("""
+                        [{"username":"a","content":"one"},
+                         {"username":"","content":"bad"},
+                         {"username":"b","content":"two"}]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].item.content").value("one"))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].errors[0]").exists())
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].item.username").value("b"));
+        assertEquals(before + 2, postService.listPosts().size());
+    }
+
+    @Test
+    void commentBatchCreatesAllCommentsOnThePost() throws Exception {
+        PostDTO p = postService.createPost("user", "post");
+        mvc.perform(post("/api/posts/" + p.getId() + "/comments:batch").contentType(MediaType.APPLICATION_JSON).content("""
+                        [{"username":"a","content":"one"},{"username":"b","content":"two"}]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].item.postId").value(p.getId()));
+        assertEquals(2, commentService.listCommentsByPostId(p.getId()).size());
+        assertEquals(2, postService.getPostById(p.getId()).orElseThrow().getCommentsCount());
+    }
+
+    @Test
+    void commentBatchOnMissingPostIsNotFound() throws Exception {
+        mvc.perform(post("/api/posts/missing/comments:batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"a\",\"content\":\"one\"}]"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void emptyBatchIsRejected() throws Exception {
+        mvc.perform(post("/api/posts:batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,95 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.model.dto.CommentDTO;
+import com.contoso.socialapp.model.dto.NewPostRequest;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.PostService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-binary-test.db",
+        "app.views.flush-interval-ms=0"
+})
+@AutoConfigureMockMvc
+class PostControllerBinaryFormatTest {
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Test
+    void createAndReadPostInCbor() throws Exception {
+        ObjectMapper cbor = objectMapper.copyWith(new CBORFactory());
+        NewPostRequest req = new NewPostRequest();
+        req.setUsername("alice");
+        req.setContent("binary hello");
+
+        byte[] created = mvc.perform(post("/api/posts").contentType(CBOR).accept(CBOR).content(cbor.writeValueAsBytes(req)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        PostDTO p = cbor.readValue(created, PostDTO.class);
+        assertEquals("binary hello", p.getContent());
+
+        byte[] read = mvc.perform(get("/api/posts/" + p.getId()).accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(p.getId(), cbor.readValue(read, PostDTO.class).getId());
+    }
+
+    @Test
+    void commentListInSmileIsSmallerThanJson() throws Exception {
+        ObjectMapper smile = objectMapper.copyWith(new SmileFactory());
+        PostDTO p = postService.createPost("user", "post");
+        for (int i = 0; i < 20; i++) commentService.createComment(p.getId(), "user" + i, "comment number " + i);
+        String url = "/api/posts/" + p.getId() + "/comments";
+
+        byte[] binary = mvc.perform(get(url).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = mvc.perform(get(url).accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        CommentDTO[] comments = smile.readValue(binary, CommentDTO[].class);
+        assertEquals(20, comments.length);
+        assertTrue(binary.length < json.length, binary.length + " >= " + json.length);
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mvc.perform(get("/api/posts?limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,141 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.service.PostService;
+import com.contoso.socialapp.service.ResponseBodyCache;
+import com.contoso.socialapp.service.ViewCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-bodies-test.db",
+        "app.views.flush-interval-ms=0"
+})
+@AutoConfigureMockMvc
+class PostControllerBodyCacheTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private ResponseBodyCache bodies;
+
+    @Autowired
+    private ViewCounter views;
+
+    @Test
+    void secondReadIsServedFromTheCacheWithTheSameBody() throws Exception {
+        PostDTO p = postService.createPost("user", "cached post");
+        String url = "/api/posts/" + p.getId();
+
+        MockHttpServletResponse first = mvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse();
+        long hits = (Long) bodies.stats().get("hits");
+        MockHttpServletResponse second = mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/json"))
+                .andExpect(header().string(HttpHeaders.ETAG, first.getHeader(HttpHeaders.ETAG)))
+                .andReturn().getResponse();
+
+        assertEquals(hits + 1, (Long) bodies.stats().get("hits"));
+        assertArrayEquals(first.getContentAsByteArray(), second.getContentAsByteArray());
+    }
+
+    @Test
+    void gzipIsServedWhenAccepted() throws Exception {
+        PostDTO p = postService.createPost("user", "compressed post");
+        String url = "/api/posts/" + p.getId();
+        byte[] plain = mvc.perform(get(url)).andReturn().getResponse().getContentAsByteArray();
+
+        byte[] gzipped = mvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(plain, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void gzipBodyHasItsOwnEtagAndBothRevalidate() throws Exception {
+        PostDTO p = postService.createPost("user", "tagged post");
+        String url = "/api/posts/" + p.getId();
+        // The first read misses the body cache and is rendered by the message converters
+        String plainTag = mvc.perform(get(url))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipTag = mvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(plainTag, gzipTag);
+        assertTrue(gzipTag.endsWith("-gzip\""), gzipTag);
+        mvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipTag))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)));
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, plainTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, plainTag));
+    }
+
+    @Test
+    void updateMakesTheCachedBodyStale() throws Exception {
+        PostDTO p = postService.createPost("user", "before");
+        String url = "/api/posts/" + p.getId();
+        mvc.perform(get(url)).andExpect(jsonPath("$.content").value("before"));
+
+        postService.updatePost(p.getId(), "user", "after");
+        long stale = (Long) bodies.stats().get("stale");
+        mvc.perform(get(url)).andExpect(status().isOk()).andExpect(jsonPath("$.content").value("after"));
+        assertTrue((Long) bodies.stats().get("stale") > stale);
+    }
+
+    @Test
+    void flushedViewsReachTheCachedBody() throws Exception {
+        PostDTO p = postService.createPost("user", "viewed post");
+        String url = "/api/posts/" + p.getId();
+        mvc.perform(get(url)).andExpect(jsonPath("$.viewsCount").value(0));
+        mvc.perform(get(url)).andExpect(status().isOk());
+
+        views.flush();
+        mvc.perform(get(url)).andExpect(jsonPath("$.viewsCount").value(2));
+    }
+
+    @Test
+    void feedPagesKeepTheirNextCursorAndBypassTheBodyCache() throws Exception {
+        for (int i = 0; i < 3; i++) postService.createPost("user", "feed " + i);
+        long hits = (Long) bodies.stats().get("hits");
+        MockHttpServletResponse first = mvc.perform(get("/api/posts?limit=2")).andReturn().getResponse();
+        String cursor = first.getHeader(PostController.NEXT_CURSOR_HEADER);
+
+        MockHttpServletResponse second = mvc.perform(get("/api/posts?limit=2"))
+                .andExpect(header().string(PostController.NEXT_CURSOR_HEADER, cursor))
+                .andReturn().getResponse();
+        assertArrayEquals(first.getContentAsByteArray(), second.getContentAsByteArray());
+        // Feed pages are rendered each time rather than served from the body cache
+        assertEquals(hits, (Long) bodies.stats().get("hits"));
+    }
+}
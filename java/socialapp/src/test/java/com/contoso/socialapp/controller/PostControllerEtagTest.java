@@ -0,0 +1,127 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.ContentVersions;
+import com.contoso.socialapp.service.LikeService;
+import com.contoso.socialapp.service.PostService;
+import com.contoso.socialapp.service.ViewCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-etag-test.db",
+        // Views are flushed by hand so the tests control when they land
+        "app.views.flush-interval-ms=0"
+})
+@AutoConfigureMockMvc
+class PostControllerEtagTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private ViewCounter viewCounter;
+
+    @Autowired
+    private ContentVersions versions;
+
+    @Test
+    void unknownPostIsNotFoundWhateverTheClientRevalidates() throws Exception {
+        // Every id not written since startup has this tag, so it is what a client replaying another post's tag sends
+        String startupTag = versions.post("never-written").getEtag();
+        int tracked = viewCounter.tracked();
+
+        mvc.perform(get("/api/posts/no-such-post").header(HttpHeaders.IF_NONE_MATCH, startupTag))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/api/posts/no-such-post").header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 01 Jan 2100 00:00:00 GMT"))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/api/posts/no-such-post/comments").header(HttpHeaders.IF_NONE_MATCH, startupTag))
+                .andExpect(status().isNotFound());
+        assertEquals(tracked, viewCounter.tracked());
+    }
+
+    @Test
+    void postReadRevalidatesUntilThePostChanges() throws Exception {
+        PostDTO p = postService.createPost("user", "post");
+        String url = "/api/posts/" + p.getId();
+
+        String etag = etag(url);
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        likeService.addLike(p.getId(), "alice");
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertNotEquals(etag, etag(url));
+    }
+
+    @Test
+    void commentListAndFeedChangeWithNewComment() throws Exception {
+        PostDTO p = postService.createPost("user", "post");
+        String comments = "/api/posts/" + p.getId() + "/comments";
+        String commentsTag = etag(comments);
+        String feedTag = etag("/api/posts");
+        mvc.perform(get("/api/posts").header(HttpHeaders.IF_NONE_MATCH, feedTag))
+                .andExpect(status().isNotModified());
+
+        commentService.createComment(p.getId(), "bob", "hi");
+        mvc.perform(get(comments).header(HttpHeaders.IF_NONE_MATCH, commentsTag))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/posts").header(HttpHeaders.IF_NONE_MATCH, feedTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void viewFlushesKeepTheFeedAndPostEtags() throws Exception {
+        PostDTO p = postService.createPost("user", "post");
+        String url = "/api/posts/" + p.getId();
+        String postTag = etag(url);
+        String feedTag = etag("/api/posts");
+
+        for (int round = 0; round < 3; round++) {
+            postService.recordView(p.getId(), "viewer-" + round);
+            viewCounter.flush();
+            mvc.perform(get("/api/posts").header(HttpHeaders.IF_NONE_MATCH, feedTag))
+                    .andExpect(status().isNotModified());
+            mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, postTag))
+                    .andExpect(status().isNotModified());
+        }
+        // The cached post still picked up the flushed totals: three recorded views plus four reads of the post
+        viewCounter.flush();
+        assertEquals(7, postService.getPostById(p.getId()).orElseThrow().getViewsCount());
+        assertEquals(feedTag, etag("/api/posts"));
+    }
+
+    private String etag(String url) throws Exception {
+        String etag = mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}
@@ -0,0 +1,73 @@
+package com.contoso.socialapp.jfr;
+
+import com.contoso.socialapp.exception.BadRequestException;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.PostService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-jfr-test.db")
+class FlightRecordingsTest {
+
+    @Autowired
+    private FlightRecordings recordings;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Test
+    void recordingCarriesRepositoryServiceAndSqlEvents() throws Exception {
+        recordings.start(60, "default");
+        assertThrows(BadRequestException.class, () -> recordings.start(60, "default"));
+        PostDTO post = postService.createPost("user", "post");
+        postService.getPostById(post.getId());
+        commentService.createComment(post.getId(), "bob", "hi");
+        Path file = recordings.stop();
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            RecordedEvent row = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("com.contoso.socialapp.RepositoryCall"))
+                    .filter(e -> e.getString("method").equals("findPostRow"))
+                    .findFirst().orElseThrow();
+            assertEquals("JdbcPostRepository", row.getString("className"));
+            assertEquals(post.getId(), row.getString("postId"));
+            assertEquals(1L, row.getLong("rows"));
+
+            RecordedEvent service = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("com.contoso.socialapp.ServiceCall"))
+                    .filter(e -> e.getString("method").equals("createComment"))
+                    .findFirst().orElseThrow();
+            assertEquals(post.getId(), service.getString("postId"));
+
+            assertTrue(events.stream()
+                    .filter(e -> e.getEventType().getName().equals("com.contoso.socialapp.SqlStatement"))
+                    .anyMatch(e -> e.getString("fingerprint").startsWith("INSERT INTO comments")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertEquals("NONE", recordings.status().get("state"));
+    }
+
+    @Test
+    void durationIsBounded() {
+        assertThrows(BadRequestException.class, () -> recordings.start(0, "default"));
+        assertThrows(BadRequestException.class, () -> recordings.start(100_000, "default"));
+        assertThrows(BadRequestException.class, () -> recordings.start(10, "nope"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.contoso.socialapp.repository.memory;
+
+import com.contoso.socialapp.model.dto.CommentDTO;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.model.dto.PostPage;
+import com.contoso.socialapp.repository.PostRepository;
+import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.LikeService;
+import com.contoso.socialapp.service.PostService;
+import com.contoso.socialapp.service.ViewCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The services run unchanged against the memory engine; each test uses its own users and tags
+@SpringBootTest(properties = {
+        "app.storage.engine=memory",
+        "app.views.flush-interval-ms=0"
+})
+class InMemoryStorageTest {
+
+    @Autowired
+    private PostRepository postRepo;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private ViewCounter viewCounter;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void engineIsSelectedByProperty() {
+        assertInstanceOf(InMemoryPostRepository.class, postRepo);
+    }
+
+    @Test
+    void noDatabaseIsOpened() {
+        assertEquals(0, context.getBeanNamesForType(DataSource.class).length);
+        assertInstanceOf(InMemoryTransactionManager.class, context.getBean(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void onlyTheAuthorCanEdit() {
+        PostDTO p = postService.createPost("owner", "original");
+        CommentDTO c = commentService.createComment(p.getId(), "commenter", "first").orElseThrow();
+
+        assertTrue(postService.updatePost(p.getId(), "someone-else", "hijacked").isEmpty());
+        assertEquals("edited", postService.updatePost(p.getId(), "owner", "edited").orElseThrow().getContent());
+        assertTrue(commentService.updateComment(p.getId(), c.getId(), "owner", "hijacked").isEmpty());
+        assertEquals("fixed", commentService.updateComment(p.getId(), c.getId(), "commenter", "fixed").orElseThrow().getContent());
+        assertTrue(commentService.getComment("other-post", c.getId()).isEmpty());
+    }
+
+    @Test
+    void countsFollowCommentsAndLikes() {
+        PostDTO p = postService.createPost("counter", "count me");
+        commentService.createComment(p.getId(), "a", "one");
+        commentService.createComment(p.getId(), "b", "two");
+        likeService.addLike(p.getId(), "a");
+        likeService.addLike(p.getId(), "a");
+        likeService.addLike(p.getId(), "b");
+        likeService.removeLike(p.getId(), "b");
+
+        PostDTO read = postService.getPostById(p.getId()).orElseThrow();
+        assertEquals(2, read.getCommentsCount());
+        assertEquals(1, read.getLikesCount());
+        assertEquals(List.of("one", "two"),
+                commentService.listCommentsByPostId(p.getId()).stream().map(CommentDTO::getContent).toList());
+        assertNull(likeService.addLike("missing", "a"));
+    }
+
+    @Test
+    void deleteCascadesToCommentsLikesAndTags() {
+        PostDTO p = postService.createPost("cascade", "going away #cascadetag");
+        CommentDTO c = commentService.createComment(p.getId(), "cascade-commenter", "bye").orElseThrow();
+        likeService.addLike(p.getId(), "fan");
+        assertEquals(1, postService.listPostsByTag("#cascadetag", 10, null).getItems().size());
+
+        assertTrue(postService.deletePost(p.getId()));
+
+        assertFalse(postService.postExists(p.getId()));
+        assertTrue(commentService.getComment(p.getId(), c.getId()).isEmpty());
+        assertTrue(commentService.listCommentsByUser("cascade-commenter", 10, null).getItems().isEmpty());
+        assertTrue(postService.listPostsByTag("#cascadetag", 10, null).getItems().isEmpty());
+        assertFalse(postService.deletePost(p.getId()));
+    }
+
+    @Test
+    void pagesWalkNewestFirstByCursor() {
+        for (int i = 0; i < 5; i++) postService.createPost("pager", "post " + i + " #pagetag");
+
+        PostPage first = postService.listPostsByUser("pager", 2, null);
+        PostPage second = postService.listPostsByUser("pager", 2, first.getNextCursor());
+        PostPage last = postService.listPostsByUser("pager", 2, second.getNextCursor());
+
+        assertEquals(List.of("post 4 #pagetag", "post 3 #pagetag", "post 2 #pagetag", "post 1 #pagetag", "post 0 #pagetag"),
+                Stream.of(first, second, last).flatMap(page -> page.getItems().stream())
+                        .map(PostDTO::getContent).toList());
+        assertNull(last.getNextCursor());
+        assertEquals(first.getItems().stream().map(PostDTO::getId).toList(),
+                postService.listPostsByTag("#pagetag", 2, null).getItems().stream().map(PostDTO::getId).toList());
+    }
+
+    @Test
+    void viewsAreFlushedIntoTheStore() {
+        PostDTO p = postService.createPost("viewed", "look");
+        for (int i = 0; i < 30; i++) postService.recordView(p.getId(), "viewer-" + i % 10);
+        viewCounter.flush();
+
+        PostDTO read = postService.getPostById(p.getId()).orElseThrow();
+        assertEquals(30, read.getViewsCount());
+        assertEquals(10, read.getUniqueViewers(), 1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.contoso.socialapp.repository.memory;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryStoreSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void snapshotRestoresPostsWithEverythingOnThem() {
+        String file = dir.resolve("store.json").toString();
+        InMemoryStore store = new InMemoryStore(new ObjectMapper(), file, 0, "persistent");
+        store.start();
+        store.insertPost("p1", "alice", "hello #tag", "2024-01-01T00:00:00Z", "2024-01-01T00:00:00Z");
+        store.insertPost("p2", "bob", "second", "2024-01-02T00:00:00Z", "2024-01-02T00:00:00Z");
+        store.insertComment("c1", "p1", "bob", "reply", "2024-01-03T00:00:00Z", "2024-01-03T00:00:00Z");
+        store.addLike("p1#bob", "p1", "bob");
+        store.addTagRef("p1", "#tag");
+        store.addViews("p1", 7);
+        store.saveSketch("p1", new byte[]{1, 2, 3}, 1);
+        assertEquals(2, store.snapshot());
+        assertEquals(-1, store.snapshot());
+
+        InMemoryStore restored = new InMemoryStore(new ObjectMapper(), file, 0, "persistent");
+        restored.start();
+        InMemoryPostRepository posts = new InMemoryPostRepository(restored);
+        PostDTO p1 = posts.findById("p1").orElseThrow();
+        assertEquals(1, p1.getLikesCount());
+        assertEquals(1, p1.getCommentsCount());
+        assertEquals(7, p1.getViewsCount());
+        assertEquals(1, p1.getUniqueViewers());
+        assertEquals(List.of("p2", "p1"), posts.findAll().stream().map(PostDTO::getId).toList());
+        assertEquals(List.of("p1"), posts.findPageByTag("#tag", null, null, 10).stream().map(PostDTO::getId).toList());
+        assertTrue(new InMemoryLikeRepository(restored).exists("p1#bob"));
+        assertArrayEquals(new byte[]{1, 2, 3}, new InMemoryViewRepository(restored).findSketches(List.of("p1")).get("p1"));
+    }
+
+    @Test
+    void recreateModeStartsEmpty() {
+        String file = dir.resolve("store.json").toString();
+        InMemoryStore store = new InMemoryStore(new ObjectMapper(), file, 0, "persistent");
+        store.start();
+        store.insertPost("p1", "alice", "hello", "2024-01-01T00:00:00Z", "2024-01-01T00:00:00Z");
+        store.snapshot();
+
+        InMemoryStore fresh = new InMemoryStore(new ObjectMapper(), file, 0, "recreate");
+        fresh.start();
+        assertTrue(fresh.posts.isEmpty());
+    }
+}
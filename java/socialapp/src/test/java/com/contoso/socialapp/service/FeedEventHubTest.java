@@ -0,0 +1,123 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.FeedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedEventHubTest {
+
+    /**
+     * Records delivered events; the first send blocks until released so later events pile up in the queue.
+     */
+    static class RecordingSink implements FeedEventHub.Sink {
+        final List<FeedEvent> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch firstSendStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void send(FeedEvent event) throws Exception {
+            firstSendStarted.countDown();
+            release.await();
+            events.add(event);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+
+    @Test
+    void queuedLikeCountsCoalesceToTheLatest() throws Exception {
+        FeedEventHub hub = new FeedEventHub(16, 30);
+        RecordingSink sink = new RecordingSink();
+        hub.subscribe(null, sink);
+
+        hub.publish("post.created", "p1", Map.of());
+        assertTrue(sink.firstSendStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 100; i++) hub.likesChanged("p1", i);
+        hub.publish("post.updated", "p1", Map.of());
+        sink.release.countDown();
+
+        waitFor(() -> sink.events.size() == 3);
+        assertEquals(List.of("post.created", "post.likes", "post.updated"), sink.events.stream().map(FeedEvent::getType).toList());
+        assertEquals(100, ((Map<?, ?>) sink.events.get(1).getData()).get("likesCount"));
+    }
+
+    @Test
+    void slowSubscriberIsClosedWhenItsBufferOverflows() throws Exception {
+        FeedEventHub hub = new FeedEventHub(4, 30);
+        RecordingSink slow = new RecordingSink();
+        hub.subscribe(null, slow);
+
+        hub.publish("post.created", "p0", Map.of());
+        assertTrue(slow.firstSendStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 5; i++) hub.publish("post.created", "p" + i, Map.of());
+
+        assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+        assertFalse(hub.hasSubscribers());
+        slow.release.countDown();
+    }
+
+    @Test
+    void overflowClosesTheSinkOffThePublishingThread() throws Exception {
+        FeedEventHub hub = new FeedEventHub(2, 30);
+        AtomicReference<Thread> closedOn = new AtomicReference<>();
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void close() {
+                closedOn.set(Thread.currentThread());
+                super.close();
+            }
+        };
+        hub.subscribe(null, slow);
+
+        hub.publish("post.created", "p0", Map.of());
+        assertTrue(slow.firstSendStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 3; i++) hub.publish("post.created", "p" + i, Map.of());
+
+        // The publisher only drops the subscription; completing the sink is left to a sender thread
+        assertFalse(hub.hasSubscribers());
+        assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), closedOn.get());
+        slow.release.countDown();
+    }
+
+    @Test
+    void perPostSubscriptionOnlySeesItsPost() throws Exception {
+        FeedEventHub hub = new FeedEventHub(16, 30);
+        RecordingSink sink = new RecordingSink();
+        sink.release.countDown();
+        FeedEventHub.Subscription s = hub.subscribe("p1", sink);
+
+        hub.publish("comment.created", "p2", Map.of());
+        hub.publish("comment.created", "p1", Map.of());
+        waitFor(() -> sink.events.size() == 1);
+        assertEquals("p1", sink.events.get(0).getPostId());
+
+        s.close();
+        assertEquals(0, hub.subscriberCount());
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertTrue(condition.getAsBoolean());
+    }
+}
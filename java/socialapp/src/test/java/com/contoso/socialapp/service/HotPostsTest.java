@@ -0,0 +1,148 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.model.dto.PostPage;
+import com.contoso.socialapp.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-hot-test.db",
+        "app.posts.hot.rescore-seconds=0"
+})
+class HotPostsTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private HotPosts hotPosts;
+
+    @Autowired
+    private PostRepository postRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PostCache postCache;
+
+    @BeforeEach
+    void clean() {
+        jdbc.execute("DELETE FROM likes");
+        jdbc.execute("DELETE FROM comments");
+        jdbc.execute("DELETE FROM posts");
+        postCache.invalidateAll();
+        hotPosts.rescore(System.currentTimeMillis());
+    }
+
+    @Test
+    void likesAndCommentsLiftAPostAboveNewerOnes() {
+        PostDTO older = postService.createPost("alice", "older");
+        PostDTO newer = postService.createPost("bob", "newer");
+        assertEquals(newer.getId(), postService.listHotPosts(10, null).getItems().get(0).getId());
+
+        likeService.addLike(older.getId(), "carol");
+        commentService.createComment(older.getId(), "dave", "nice");
+
+        List<PostDTO> hot = postService.listHotPosts(10, null).getItems();
+        assertEquals(List.of(older.getId(), newer.getId()), hot.stream().map(PostDTO::getId).toList());
+        assertEquals(1, hot.get(0).getLikesCount());
+        assertEquals(1, hot.get(0).getCommentsCount());
+
+        postService.deletePost(older.getId());
+        assertEquals(List.of(newer.getId()), postService.listHotPosts(10, null).getItems().stream().map(PostDTO::getId).toList());
+    }
+
+    @Test
+    void cursorWalksTheWholeRanking() {
+        for (int i = 0; i < 7; i++) postService.createPost("alice", "post " + i);
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            PostPage page = postService.listHotPosts(3, cursor);
+            page.getItems().forEach(p -> seen.add(p.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(7, seen.size());
+        assertEquals(7, seen.stream().distinct().count());
+    }
+
+    @Test
+    void rescoreAdmitsActivePostsAndKeepsCapacity() {
+        PostDTO quiet = postService.createPost("alice", "quiet");
+        postService.createPost("bob", "new 1");
+        postService.createPost("bob", "new 2");
+        HotPosts small = new HotPosts(postRepo, 2, 48, 0);
+        small.start();
+        assertFalse(small.page(null, 10).getIds().contains(quiet.getId()));
+
+        // Activity on an untracked post is only queued; the rescore loads it and evicts the weakest
+        likeService.addLike(quiet.getId(), "carol");
+        likeService.addLike(quiet.getId(), "dave");
+        small.adjust(quiet.getId(), 2, 0);
+        small.rescore(System.currentTimeMillis());
+        List<String> ids = small.page(null, 10).getIds();
+        assertEquals(2, ids.size());
+        assertEquals(quiet.getId(), ids.get(0));
+    }
+
+    @Test
+    void postsPastTheMaximumAgeAreNotRanked() {
+        String old = Instant.now().minus(3, ChronoUnit.DAYS).toString();
+        postRepo.insertPost("old-post", "alice", "from last week", old, old);
+        hotPosts.adjust("old-post", 1, 0);
+        hotPosts.rescore(System.currentTimeMillis());
+        assertFalse(hotPosts.page(null, 100).getIds().contains("old-post"));
+    }
+
+    @Test
+    void postDeletedWhileARescoreReadsCountsStaysOut() throws Exception {
+        PostDTO doomed = postService.createPost("alice", "doomed");
+        PostDTO kept = postService.createPost("bob", "kept");
+        AtomicReference<HotPosts> hot = new AtomicReference<>();
+        // The rescore's read returns the post, then a delete lands before the rescore swaps the ranking in
+        PostRepository racing = (PostRepository) Proxy.newProxyInstance(PostRepository.class.getClassLoader(),
+                new Class<?>[]{PostRepository.class}, (proxy, method, args) -> {
+                    try {
+                        Object result = method.invoke(postRepo, args);
+                        if (method.getName().equals("findByIds")) {
+                            Thread delete = new Thread(() -> hot.get().removed(doomed.getId()));
+                            delete.start();
+                            delete.join();
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        HotPosts small = new HotPosts(racing, 10, 48, 0);
+        hot.set(small);
+        small.start();
+        assertTrue(small.page(null, 10).getIds().contains(doomed.getId()));
+
+        small.rescore(System.currentTimeMillis());
+        List<String> ids = small.page(null, 10).getIds();
+        assertFalse(ids.contains(doomed.getId()));
+        assertTrue(ids.contains(kept.getId()));
+    }
+}
@@ -0,0 +1,144 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.FeedEvent;
+import com.contoso.socialapp.model.dto.PostDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-like-service-test.db")
+class LikeServiceTest {
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private FeedEventHub events;
+
+    @BeforeEach
+    void clean() {
+        jdbc.execute("DELETE FROM likes");
+        jdbc.execute("DELETE FROM comments");
+        jdbc.execute("DELETE FROM posts");
+        postCache.invalidateAll();
+    }
+
+    @Test
+    void likeIsIdempotentPerUser() {
+        PostDTO p = postService.createPost("author", "post");
+
+        assertNotNull(likeService.addLike(p.getId(), "alice"));
+        assertNotNull(likeService.addLike(p.getId(), "alice"));
+        assertNotNull(likeService.addLike(p.getId(), "bob"));
+
+        assertEquals(2, postService.getPostById(p.getId()).orElseThrow().getLikesCount());
+    }
+
+    @Test
+    void unlikeDecrementsOnlyExistingLikes() {
+        PostDTO p = postService.createPost("author", "post");
+        likeService.addLike(p.getId(), "alice");
+
+        assertTrue(likeService.removeLike(p.getId(), "alice"));
+        assertTrue(likeService.removeLike(p.getId(), "alice"));
+
+        assertEquals(0, postService.getPostById(p.getId()).orElseThrow().getLikesCount());
+    }
+
+    @Test
+    void noOpLikesKeepTheCachedPost() {
+        PostDTO p = postService.createPost("author", "post");
+        likeService.addLike(p.getId(), "alice");
+        postService.getPostById(p.getId());
+
+        likeService.addLike(p.getId(), "alice");
+        likeService.removeLike(p.getId(), "bob");
+        long hits = (Long) postCache.stats().get("posts").get("hits");
+        assertEquals(1, postService.getPostById(p.getId()).orElseThrow().getLikesCount());
+        assertEquals(hits + 1, (Long) postCache.stats().get("posts").get("hits"));
+    }
+
+    @Test
+    void likeOnMissingPostIsRejected() {
+        assertNull(likeService.addLike("missing", "alice"));
+        assertFalse(likeService.removeLike("missing", "alice"));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM likes", Integer.class));
+    }
+
+    @Test
+    void concurrentLikesAreNotLost() throws Exception {
+        PostDTO p = postService.createPost("author", "post");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String user = "user" + (i % 50);
+                futures.add(pool.submit(() -> likeService.addLike(p.getId(), user)));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(50, postService.getPostById(p.getId()).orElseThrow().getLikesCount());
+    }
+
+    @Test
+    void publishedLikeCountsNeverRunBehind() throws Exception {
+        PostDTO p = postService.createPost("author", "post");
+        List<Integer> counts = new CopyOnWriteArrayList<>();
+        FeedEventHub.Subscription subscription = events.subscribe(p.getId(), new FeedEventHub.Sink() {
+            @Override
+            public void send(FeedEvent event) {
+                if (event.getType().equals("post.likes")) counts.add((Integer) ((Map<?, ?>) event.getData()).get("likesCount"));
+            }
+
+            @Override
+            public void heartbeat() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                String user = "user" + i;
+                futures.add(pool.submit(() -> likeService.addLike(p.getId(), user)));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((counts.isEmpty() || counts.get(counts.size() - 1) != 100) && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        subscription.close();
+        // Only likes were added, so any drop means an older count was delivered after a newer one
+        for (int i = 1; i < counts.size(); i++) assertTrue(counts.get(i - 1) <= counts.get(i), counts::toString);
+        assertEquals(100, counts.get(counts.size() - 1));
+    }
+}
@@ -0,0 +1,138 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-like-write-buffer-test.db",
+        "app.likes.write-behind.enabled=true",
+        "app.likes.write-behind.flush-interval-ms=60000",
+        "app.likes.write-behind.max-pending=100"
+})
+class LikeWriteBufferTest {
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private LikeWriteBuffer writeBuffer;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PostCache postCache;
+
+    @BeforeEach
+    void clean() {
+        writeBuffer.flush();
+        jdbc.execute("DELETE FROM likes");
+        jdbc.execute("DELETE FROM comments");
+        jdbc.execute("DELETE FROM posts");
+        postCache.invalidateAll();
+    }
+
+    @Test
+    void likesAreAppliedOnFlush() {
+        PostDTO p = postService.createPost("author", "post");
+
+        assertNotNull(likeService.addLike(p.getId(), "alice"));
+        assertNotNull(likeService.addLike(p.getId(), "bob"));
+        assertEquals(0, likesCount(p));
+        assertEquals(2, writeBuffer.pending());
+
+        writeBuffer.flush();
+        assertEquals(2, likesCount(p));
+        assertEquals(0, writeBuffer.pending());
+    }
+
+    @Test
+    void onlyTheLatestIntentPerUserIsWritten() {
+        PostDTO p = postService.createPost("author", "post");
+        likeService.addLike(p.getId(), "alice");
+        writeBuffer.flush();
+
+        likeService.removeLike(p.getId(), "alice");
+        likeService.addLike(p.getId(), "alice");
+        likeService.addLike(p.getId(), "bob");
+        likeService.removeLike(p.getId(), "bob");
+        assertEquals(2, writeBuffer.pending());
+
+        writeBuffer.flush();
+        assertEquals(1, likesCount(p));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM likes", Integer.class));
+    }
+
+    @Test
+    void fullBufferFlushesInline() {
+        PostDTO p = postService.createPost("author", "post");
+        for (int i = 0; i < 150; i++) {
+            likeService.addLike(p.getId(), "user" + i);
+        }
+
+        assertTrue(writeBuffer.pending() <= 100);
+        writeBuffer.flush();
+        assertEquals(150, likesCount(p));
+    }
+
+    @Test
+    void failedFlushIsRetriedWithTheNextOne() {
+        PostDTO p = postService.createPost("author", "post");
+        likeService.addLike(p.getId(), "alice");
+        likeService.addLike(p.getId(), "bob");
+
+        jdbc.execute("ALTER TABLE likes RENAME TO likes_unavailable");
+        try {
+            assertThrows(RuntimeException.class, writeBuffer::flush);
+        } finally {
+            jdbc.execute("ALTER TABLE likes_unavailable RENAME TO likes");
+        }
+        assertEquals(2, writeBuffer.pending());
+        // Recorded after the failed swap, so it overrides the requeued intent
+        likeService.removeLike(p.getId(), "bob");
+
+        writeBuffer.flush();
+        assertEquals(1, likesCount(p));
+        assertEquals(0, writeBuffer.pending());
+    }
+
+    @Test
+    void likeIsAcceptedWhenTheInlineFlushFails() {
+        PostDTO p = postService.createPost("author", "post");
+        for (int i = 0; i < 100; i++) {
+            likeService.addLike(p.getId(), "user" + i);
+        }
+
+        jdbc.execute("ALTER TABLE likes RENAME TO likes_unavailable");
+        try {
+            // The buffer is full, so this like flushes inline first and that flush fails
+            assertNotNull(likeService.addLike(p.getId(), "alice"));
+        } finally {
+            jdbc.execute("ALTER TABLE likes_unavailable RENAME TO likes");
+        }
+        assertEquals(101, writeBuffer.pending());
+
+        writeBuffer.flush();
+        assertEquals(101, likesCount(p));
+    }
+
+    @Test
+    void missingPostIsRejectedWithoutBuffering() {
+        assertNull(likeService.addLike("missing", "alice"));
+        assertFalse(likeService.removeLike("missing", "alice"));
+        assertEquals(0, writeBuffer.pending());
+    }
+
+    private int likesCount(PostDTO p) {
+        return postService.getPostById(p.getId()).orElseThrow().getLikesCount();
+    }
+}
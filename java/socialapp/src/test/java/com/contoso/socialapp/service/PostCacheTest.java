@@ -0,0 +1,105 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.model.dto.PostPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostCacheTest {
+
+    private final PostCache cache = new PostCache(null, new ContentVersions(), 1 << 20, 60);
+
+    @Test
+    void feedLoadFillsThePostCache() {
+        cache.feed("all", () -> new PostPage(List.of(post("p1", "v1")), null));
+
+        assertEquals("v1", cache.post("p1", id -> Optional.of(post(id, "reloaded"))).orElseThrow().getContent());
+    }
+
+    @Test
+    void feedLoadRacingAnInvalidationKeepsItsStaleRowsOut() throws Exception {
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        CompletableFuture<PostPage> reader = CompletableFuture.supplyAsync(() -> cache.feed("all", () -> {
+            // The rows were read before the write below committed
+            PostPage stale = new PostPage(List.of(post("p1", "before")), null);
+            loaded.countDown();
+            await(written);
+            return stale;
+        }));
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        cache.invalidatePost("p1");
+        written.countDown();
+        assertEquals("before", reader.get(5, TimeUnit.SECONDS).getItems().get(0).getContent());
+
+        assertEquals("after", cache.post("p1", id -> Optional.of(post(id, "after"))).orElseThrow().getContent());
+        AtomicInteger feedLoads = new AtomicInteger();
+        cache.feed("all", () -> {
+            feedLoads.incrementAndGet();
+            return new PostPage(List.of(post("p1", "after")), null);
+        });
+        assertEquals(1, feedLoads.get());
+    }
+
+    @Test
+    void writesToOtherPostsDoNotKeepALoadOut() {
+        ContentVersions versions = new ContentVersions();
+        PostCache cache = new PostCache(null, versions, 1 << 20, 60);
+        cache.post("p1", id -> {
+            versions.postChanged("p2");
+            versions.commentsChanged("p3");
+            return Optional.of(post(id, "loaded"));
+        });
+        cache.comments("p1", id -> {
+            versions.postChanged("p2");
+            return List.of();
+        });
+
+        assertEquals("loaded", cache.post("p1", id -> Optional.of(post(id, "reloaded"))).orElseThrow().getContent());
+        assertTrue(cache.comments("p1", id -> { throw new AssertionError("comments were not cached"); }).isEmpty());
+    }
+
+    @Test
+    void postLoadHoldsNoCacheLockWhileItReads() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        CompletableFuture<Optional<PostDTO>> reader = CompletableFuture.supplyAsync(() -> cache.post("p1", id -> {
+            loading.countDown();
+            await(written);
+            return Optional.of(post(id, "before"));
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        // Would wait for the loader if it ran inside the map's compute
+        CompletableFuture.runAsync(() -> cache.invalidatePost("p1")).get(5, TimeUnit.SECONDS);
+        written.countDown();
+        assertEquals("before", reader.get(5, TimeUnit.SECONDS).orElseThrow().getContent());
+
+        assertEquals("after", cache.post("p1", id -> Optional.of(post(id, "after"))).orElseThrow().getContent());
+    }
+
+    private static PostDTO post(String id, String content) {
+        PostDTO p = new PostDTO();
+        p.setId(id);
+        p.setUsername("alice");
+        p.setContent(content);
+        return p;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
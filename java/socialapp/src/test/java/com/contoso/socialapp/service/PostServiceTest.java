@@ -0,0 +1,224 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.NewPostRequest;
+import com.contoso.socialapp.model.dto.PostDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-post-service-test.db")
+class PostServiceTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private StatementCounter statements;
+
+    @BeforeEach
+    void clean() {
+        jdbc.execute("DELETE FROM likes");
+        jdbc.execute("DELETE FROM comments");
+        jdbc.execute("DELETE FROM posts");
+        postCache.invalidateAll();
+    }
+
+    @Test
+    void listPostsUsesOneStatementRegardlessOfPostCount() {
+        for (int i = 0; i < 25; i++) {
+            PostDTO p = postService.createPost("user" + i, "post " + i);
+            for (int j = 0; j < i % 4; j++) {
+                commentService.createComment(p.getId(), "commenter", "comment " + j);
+            }
+        }
+
+        statements.reset();
+        List<PostDTO> posts = postService.listPosts();
+        assertEquals(1, statements.count());
+
+        assertEquals(25, posts.size());
+        assertEquals(24 % 4, posts.get(0).getCommentsCount());
+        assertEquals(36, posts.stream().mapToInt(PostDTO::getCommentsCount).sum());
+    }
+
+    @Test
+    void listPostsPageUsesOneStatement() {
+        for (int i = 0; i < 10; i++) {
+            postService.createPost("user", "post " + i);
+        }
+
+        statements.reset();
+        postService.listPosts(5, null);
+        assertEquals(1, statements.count());
+    }
+
+    @Test
+    void getPostByIdIncludesCommentCountInOneStatement() {
+        PostDTO p = postService.createPost("user", "post");
+        commentService.createComment(p.getId(), "a", "one");
+        commentService.createComment(p.getId(), "b", "two");
+
+        statements.reset();
+        PostDTO loaded = postService.getPostById(p.getId()).orElseThrow();
+        assertEquals(1, statements.count());
+        assertEquals(2, loaded.getCommentsCount());
+    }
+
+    @Test
+    void repeatedReadsAreServedFromCache() {
+        PostDTO p = postService.createPost("user", "post");
+        postService.getPostById(p.getId());
+        postService.listPosts(5, null);
+        commentService.listCommentsByPostId(p.getId());
+
+        statements.reset();
+        postService.getPostById(p.getId());
+        postService.listPosts(5, null);
+        commentService.listCommentsByPostId(p.getId());
+        assertEquals(0, statements.count());
+    }
+
+    @Test
+    void writesInvalidateAffectedEntries() {
+        PostDTO p = postService.createPost("user", "post");
+        assertEquals(1, postService.listPosts().size());
+        assertEquals(0, postService.getPostById(p.getId()).orElseThrow().getLikesCount());
+
+        likeService.addLike(p.getId(), "alice");
+        commentService.createComment(p.getId(), "bob", "hi");
+        postService.updatePost(p.getId(), "user", "edited");
+
+        PostDTO loaded = postService.getPostById(p.getId()).orElseThrow();
+        assertEquals(1, loaded.getLikesCount());
+        assertEquals(1, loaded.getCommentsCount());
+        assertEquals("edited", loaded.getContent());
+        assertEquals(1, commentService.listCommentsByPostId(p.getId()).size());
+
+        // The cached feed still lists the post, but with its current state
+        PostDTO inFeed = postService.listPosts().get(0);
+        assertEquals(1, inFeed.getLikesCount());
+        assertEquals("edited", inFeed.getContent());
+
+        postService.createPost("user", "second");
+        assertEquals(2, postService.listPosts().size());
+    }
+
+    @Test
+    void postBatchWritesInStatementsIndependentOfItsSize() {
+        statements.reset();
+        postService.createPosts(newPosts(5));
+        int small = statements.count();
+
+        statements.reset();
+        postService.createPosts(newPosts(50));
+        assertEquals(small, statements.count());
+        assertEquals(55, postService.listPosts().size());
+    }
+
+    @Test
+    void postBatchRollsBackAsAWholeWhenAnItemFails() {
+        List<NewPostRequest> batch = newPosts(10);
+        // Fails the NOT NULL constraint after the items before it were inserted
+        batch.get(5).setUsername(null);
+
+        assertThrows(DataAccessException.class, () -> postService.createPosts(batch));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM posts", Integer.class));
+        assertTrue(postService.listPosts().isEmpty());
+    }
+
+    private static List<NewPostRequest> newPosts(int n) {
+        List<NewPostRequest> posts = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            NewPostRequest p = new NewPostRequest();
+            p.setUsername("user" + i);
+            p.setContent("post " + i);
+            posts.add(p);
+        }
+        return posts;
+    }
+
+    /**
+     * Counts JDBC statements created through the application DataSource.
+     */
+    static class StatementCounter {
+        private final AtomicInteger count = new AtomicInteger();
+
+        void reset() { count.set(0); }
+        int count() { return count.get(); }
+
+        DataSource wrap(DataSource target) {
+            return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(target, method, args);
+                        return result instanceof Connection c ? wrap(c) : result;
+                    });
+        }
+
+        private Connection wrap(Connection target) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("prepareStatement") || name.equals("createStatement") || name.equals("prepareCall")) {
+                            count.incrementAndGet();
+                        }
+                        return invoke(target, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor(org.springframework.beans.factory.ObjectProvider<StatementCounter> counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ds ? counter.getObject().wrap(ds) : bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.contoso.socialapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseBodyCacheTest {
+
+    @Test
+    void servesOnlyTheVersionItWasBuiltFor() {
+        ResponseBodyCache cache = new ResponseBodyCache(new ObjectMapper(), true, 64 * 1024, 4);
+        cache.put("post:1", "\"v1\"", "hello", null);
+
+        try (ResponseBodyCache.Hit hit = cache.get("post:1", "\"v1\"", false)) {
+            assertNotNull(hit);
+            assertEquals("\"hello\"", new String(hit.bytes(), 0, hit.length(), StandardCharsets.UTF_8));
+        }
+        assertNull(cache.get("post:1", "\"v2\"", false));
+        // The stale entry is dropped, so even the old version misses now
+        assertNull(cache.get("post:1", "\"v1\"", false));
+    }
+
+    @Test
+    void recyclesTheOldestSegmentWhenTheBudgetIsFull() {
+        ResponseBodyCache cache = new ResponseBodyCache(new ObjectMapper(), true, 4096, 4);
+        char[] filler = new char[200];
+        Arrays.fill(filler, 'x');
+        for (int i = 0; i < 50; i++) cache.put("post:" + i, "\"v\"", new String(filler) + i, null);
+
+        assertNull(cache.get("post:0", "\"v\"", false));
+        try (ResponseBodyCache.Hit hit = cache.get("post:49", "\"v\"", true)) {
+            assertNotNull(hit);
+        }
+        assertTrue((Long) cache.stats().get("evictions") > 0);
+        assertTrue((Long) cache.stats().get("usedBytes") <= 4096);
+    }
+
+    @Test
+    void rejectsBodiesLargerThanASegment() {
+        ResponseBodyCache cache = new ResponseBodyCache(new ObjectMapper(), true, 4096, 4);
+        char[] big = new char[2000];
+        Arrays.fill(big, 'y');
+        cache.put("feed:big", "\"v\"", new String(big), null);
+
+        assertNull(cache.get("feed:big", "\"v\"", false));
+        assertEquals(1L, cache.stats().get("rejected"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.contoso.socialapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Query latency of {@link SearchService} over a large corpus. Disabled by default; run with
+ * {@code mvn test -Dtest=SearchBenchmarkTest -Dbenchmark=true [-Dbenchmark.posts=1000000]}.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-search-benchmark.db")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SearchBenchmarkTest {
+    private static final String[] WORDS = ("coffee morning rain sunny weekend project deadline music concert "
+            + "travel beach mountain dinner recipe garden kitten puppy football movie book release update launch "
+            + "team office meeting code review deploy bug fix coffee tea bike run").split(" ");
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    void queryLatency() {
+        int posts = Integer.getInteger("benchmark.posts", 1_000_000);
+        seed(posts);
+
+        for (String q : List.of("kitten", "coffee morning", "deploy bug fix", "conc*", "zebra")) {
+            for (int i = 0; i < 20; i++) searchService.search(q, 20, null);
+            long[] nanos = new long[200];
+            for (int i = 0; i < nanos.length; i++) {
+                long start = System.nanoTime();
+                searchService.search(q, 20, null);
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%-16s p50 %7.2f ms  p99 %7.2f ms%n", q, nanos[100] / 1e6, nanos[197] / 1e6);
+        }
+    }
+
+    private void seed(int posts) {
+        Random random = new Random(42);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        long start = System.nanoTime();
+        for (int done = 0; done < posts; ) {
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < 10_000 && done < posts; i++, done++) {
+                StringBuilder content = new StringBuilder();
+                for (int w = 0; w < 12; w++) content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                String ts = String.format("2024-01-01T00:00:%09dZ", done);
+                rows.add(new Object[]{"bench-" + done, "user" + (done % 1000), content.toString(), ts, ts});
+            }
+            tx.executeWithoutResult(status -> jdbc.batchUpdate(
+                    "INSERT INTO posts (id, username, content, created_at, updated_at, likes, likes_by) VALUES (?,?,?,?,?,0,'[]')", rows));
+        }
+        System.out.printf("seeded %d posts in %.1f s%n", posts, (System.nanoTime() - start) / 1e9);
+    }
+}
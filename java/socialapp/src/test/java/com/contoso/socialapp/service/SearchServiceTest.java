@@ -0,0 +1,98 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.exception.BadRequestException;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.model.dto.SearchHit;
+import com.contoso.socialapp.model.dto.SearchPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-search-test.db")
+class SearchServiceTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PostCache postCache;
+
+    @BeforeEach
+    void clean() {
+        jdbc.execute("DELETE FROM likes");
+        jdbc.execute("DELETE FROM comments");
+        jdbc.execute("DELETE FROM posts");
+        postCache.invalidateAll();
+    }
+
+    @Test
+    void findsPostsAndCommentsWithEscapedHighlights() {
+        PostDTO p = postService.createPost("alice", "Walking <b>in</b> the rain today");
+        commentService.createComment(p.getId(), "bob", "I love rain too");
+        postService.createPost("carol", "Sunny all week");
+
+        List<SearchHit> hits = searchService.search("rain", 10, null).getItems();
+
+        assertEquals(2, hits.size());
+        assertEquals(Set.of("post", "comment"), Set.of(hits.get(0).getType(), hits.get(1).getType()));
+        SearchHit post = hits.stream().filter(h -> h.getType().equals("post")).findFirst().orElseThrow();
+        assertEquals("Walking &lt;b&gt;in&lt;/b&gt; the <mark>rain</mark> today", post.getSnippet());
+        SearchHit comment = hits.stream().filter(h -> h.getType().equals("comment")).findFirst().orElseThrow();
+        assertEquals(p.getId(), comment.getPostId());
+    }
+
+    @Test
+    void indexFollowsUpdatesAndDeletes() {
+        PostDTO p = postService.createPost("alice", "old words");
+        postService.updatePost(p.getId(), "alice", "new words");
+        assertTrue(searchService.search("old", 10, null).getItems().isEmpty());
+        assertEquals(1, searchService.search("new", 10, null).getItems().size());
+
+        postService.deletePost(p.getId());
+        assertTrue(searchService.search("words", 10, null).getItems().isEmpty());
+    }
+
+    @Test
+    void cursorWalksEveryMatchOnce() {
+        for (int i = 0; i < 23; i++) postService.createPost("user", "topic number " + i + (i % 3 == 0 ? " topic" : ""));
+
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            SearchPage page = searchService.search("topic", 5, cursor);
+            for (SearchHit h : page.getItems()) assertTrue(seen.add(h.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(23, seen.size());
+        assertEquals(5, pages);
+    }
+
+    @Test
+    void queryOperatorsAreTreatedAsText() {
+        postService.createPost("alice", "what about AND or NOT\"quotes\"");
+        assertDoesNotThrow(() -> searchService.search("\"AND NOT( col:x", 10, null));
+        assertEquals(1, searchService.search("abo*", 10, null).getItems().size());
+        assertThrows(BadRequestException.class, () -> searchService.search("  ", 10, null));
+        assertThrows(BadRequestException.class, () -> searchService.search("x", 10, "not-a-cursor"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.CommentDTO;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.model.dto.PostPage;
+import com.contoso.socialapp.model.dto.TrendingTag;
+import com.contoso.socialapp.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-tags-test.db",
+        "app.tags.trending.checkpoint-seconds=0"
+})
+class TagIndexTest {
+    private static final long HOUR_MS = 3_600_000L;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private TagRepository tagRepo;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PostCache postCache;
+
+    @BeforeEach
+    void clean() {
+        jdbc.execute("DELETE FROM likes");
+        jdbc.execute("DELETE FROM comments");
+        jdbc.execute("DELETE FROM posts");
+        jdbc.execute("DELETE FROM post_tags");
+        jdbc.execute("DELETE FROM trending_buckets");
+        postCache.invalidateAll();
+    }
+
+    @Test
+    void extractsHashtagsAndMentions() {
+        assertEquals(Set.of("java", "spring_boot", "@alice"),
+                TagExtractor.extract("Hello @Alice, #Java and #spring_boot! #JAVA again"));
+        assertTrue(TagExtractor.extract("mail bob@example.com, issue a#1").isEmpty());
+        assertEquals("java", TagExtractor.normalizeKey("#Java"));
+        assertEquals("@alice", TagExtractor.normalizeKey("@ALICE"));
+        assertNull(TagExtractor.normalizeKey("not a tag"));
+    }
+
+    @Test
+    void pagesPostsByTagNewestFirst() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) ids.add(postService.createPost("alice", "post " + i + " #java").getId());
+        postService.createPost("bob", "unrelated #kotlin");
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            PostPage page = postService.listPostsByTag("java", 2, cursor);
+            page.getItems().forEach(p -> seen.add(p.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<String> expected = new ArrayList<>(ids);
+        java.util.Collections.reverse(expected);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void editsAndCommentsKeepTheIndexInStep() {
+        PostDTO p = postService.createPost("alice", "about #java");
+        CommentDTO c = commentService.createComment(p.getId(), "bob", "me too #java, cc @carol").orElseThrow();
+
+        // The comment still carries #java, so removing it from the post keeps the post listed
+        postService.updatePost(p.getId(), "alice", "about #kotlin");
+        assertEquals(1, postService.listPostsByTag("java", 10, null).getItems().size());
+        assertEquals(1, postService.listPostsByTag("kotlin", 10, null).getItems().size());
+        assertEquals(1, postService.listPostsByTag("@carol", 10, null).getItems().size());
+
+        commentService.deleteComment(p.getId(), c.getId());
+        assertTrue(postService.listPostsByTag("java", 10, null).getItems().isEmpty());
+        assertTrue(postService.listPostsByTag("@carol", 10, null).getItems().isEmpty());
+
+        postService.deletePost(p.getId());
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM post_tags", Integer.class));
+    }
+
+    @Test
+    void trendingWindowsSlideAndSurviveACheckpoint() {
+        TrendingTags trending = new TrendingTags(tagRepo, txManager, 0);
+        long t0 = 1_000 * HOUR_MS;
+        trending.record(List.of("java", "java", "@alice", "kotlin"), t0);
+        trending.record(List.of("kotlin", "kotlin"), t0 + 2 * HOUR_MS);
+
+        List<TrendingTag> hour = trending.top(false, 10, t0 + 2 * HOUR_MS);
+        assertEquals(1, hour.size());
+        assertEquals("kotlin", hour.get(0).getTag());
+        assertEquals(2, hour.get(0).getCount());
+
+        List<TrendingTag> day = trending.top(true, 10, t0 + 2 * HOUR_MS);
+        assertEquals(List.of("kotlin", "java"), day.stream().map(TrendingTag::getTag).toList());
+        assertEquals(3, day.get(0).getCount());
+
+        trending.checkpoint(t0 + 2 * HOUR_MS);
+        TrendingTags restored = new TrendingTags(tagRepo, txManager, 0);
+        restored.start();
+        List<TrendingTag> reloaded = restored.top(true, 10, t0 + 2 * HOUR_MS);
+        assertTrue(reloaded.isEmpty(), "buckets from the test clock are far in the past and must not be restored");
+
+        long now = System.currentTimeMillis();
+        trending.record(List.of("java"), now);
+        trending.checkpoint(now);
+        restored = new TrendingTags(tagRepo, txManager, 0);
+        restored.start();
+        assertEquals("java", restored.top(false, 10).get(0).getTag());
+        assertEquals(1, restored.top(false, 10).get(0).getCount());
+    }
+}
@@ -0,0 +1,96 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.CommentDTO;
+import com.contoso.socialapp.model.dto.CommentPage;
+import com.contoso.socialapp.model.dto.PostDTO;
+import com.contoso.socialapp.model.dto.PostPage;
+import com.contoso.socialapp.repository.JdbcCommentRepository;
+import com.contoso.socialapp.repository.JdbcPostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-timeline-test.db")
+class UserTimelineTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PostCache postCache;
+
+    @BeforeEach
+    void clean() {
+        jdbc.execute("DELETE FROM likes");
+        jdbc.execute("DELETE FROM comments");
+        jdbc.execute("DELETE FROM posts");
+        postCache.invalidateAll();
+    }
+
+    @Test
+    void pagesOnlyTheUsersPostsAndComments() {
+        List<String> posts = new ArrayList<>();
+        List<String> comments = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            PostDTO mine = postService.createPost("alice", "mine " + i);
+            posts.add(mine.getId());
+            PostDTO theirs = postService.createPost("bob", "theirs " + i);
+            comments.add(commentService.createComment(theirs.getId(), "alice", "reply " + i).orElseThrow().getId());
+            commentService.createComment(mine.getId(), "bob", "reply " + i);
+        }
+        Collections.reverse(posts);
+        Collections.reverse(comments);
+
+        List<String> seenPosts = new ArrayList<>();
+        String cursor = null;
+        do {
+            PostPage page = postService.listPostsByUser("alice", 2, cursor);
+            page.getItems().forEach(p -> seenPosts.add(p.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(posts, seenPosts);
+
+        List<String> seenComments = new ArrayList<>();
+        cursor = null;
+        do {
+            CommentPage page = commentService.listCommentsByUser("alice", 2, cursor);
+            page.getItems().stream().map(CommentDTO::getId).forEach(seenComments::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(comments, seenComments);
+
+        assertTrue(postService.listPostsByUser("nobody", 10, null).getItems().isEmpty());
+    }
+
+    @Test
+    void timelineQueriesUseTheAuthorIndexes() {
+        assertAuthorIndexSeek(plan(JdbcPostRepository.PAGE_BY_USER_SQL, "a", 20), "idx_posts_username_created_at");
+        assertAuthorIndexSeek(plan(JdbcPostRepository.PAGE_BY_USER_AFTER_SQL, "a", "x", "y", 20), "idx_posts_username_created_at");
+        assertAuthorIndexSeek(plan(JdbcCommentRepository.PAGE_BY_USER_SQL, "a", 20), "idx_comments_username_created_at");
+        assertAuthorIndexSeek(plan(JdbcCommentRepository.PAGE_BY_USER_AFTER_SQL, "a", "x", "y", 20), "idx_comments_username_created_at");
+    }
+
+    private static void assertAuthorIndexSeek(String plan, String index) {
+        assertTrue(plan.contains("USING INDEX " + index), plan);
+        assertFalse(plan.contains("TEMP B-TREE"), plan);
+    }
+
+    private String plan(String sql, Object... args) {
+        return String.join("\n", jdbc.queryForList("EXPLAIN QUERY PLAN " + sql, args).stream()
+                .map(row -> String.valueOf(row.get("detail"))).toList());
+    }
+}
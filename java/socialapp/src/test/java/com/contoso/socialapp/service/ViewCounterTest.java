@@ -0,0 +1,91 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.model.dto.PostDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:${java.io.tmpdir}/socialapp-views-test.db",
+        "app.views.flush-interval-ms=0"
+})
+class ViewCounterTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private ViewCounter viewCounter;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PostCache postCache;
+
+    @BeforeEach
+    void clean() {
+        jdbc.execute("DELETE FROM likes");
+        jdbc.execute("DELETE FROM comments");
+        jdbc.execute("DELETE FROM posts");
+        jdbc.execute("DELETE FROM post_view_sketches");
+        postCache.invalidateAll();
+    }
+
+    @Test
+    void concurrentViewsAreAllFlushed() throws Exception {
+        PostDTO p = postService.createPost("alice", "read me");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 1000; i++) postService.recordView(p.getId(), "viewer-" + (thread * 1000 + i) % 500);
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        viewCounter.flush();
+
+        PostDTO read = postService.getPostById(p.getId()).orElseThrow();
+        assertEquals(8000, read.getViewsCount());
+        assertEquals(500, read.getUniqueViewers(), 500 * 0.1);
+    }
+
+    @Test
+    void uniqueViewersSurviveARestartOfTheSketch() {
+        PostDTO p = postService.createPost("alice", "read me");
+        for (int i = 0; i < 200; i++) postService.recordView(p.getId(), "viewer-" + i);
+        viewCounter.flush();
+        // An idle flush drops the in-memory tally, as after a restart
+        viewCounter.flush();
+        assertEquals(0, viewCounter.tracked());
+
+        for (int i = 0; i < 200; i++) postService.recordView(p.getId(), "viewer-" + i);
+        viewCounter.flush();
+
+        PostDTO read = postService.getPostById(p.getId()).orElseThrow();
+        assertEquals(400, read.getViewsCount());
+        assertEquals(200, read.getUniqueViewers(), 200 * 0.1);
+    }
+
+    @Test
+    void estimateStaysWithinTheExpectedError() {
+        HyperLogLog hll = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) hll.add("user-" + i);
+        assertEquals(100_000, hll.estimate(), 100_000 * 0.1);
+    }
+}